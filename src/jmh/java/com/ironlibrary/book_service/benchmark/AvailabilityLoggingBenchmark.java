@@ -0,0 +1,112 @@
+package com.ironlibrary.book_service.benchmark;
+
+import com.ironlibrary.book_service.BookServiceApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Coste del logging en PUT /api/books/{id}/availability desde 16 hilos, con la aplicación completa:
+ * DispatcherServlet, interceptores (incluido RequestLoggingInterceptor), controlador y servicio sobre H2.
+ * <ul>
+ *   <li>SHIPPED: la configuración que se distribuye (logback-spring.xml con el appender asíncrono, las líneas
+ *       del controlador y del servicio en DEBUG y el log de peticiones muestreado según application.properties).</li>
+ *   <li>SYNC_VERBOSE: como antes, consola síncrona (base.xml de Spring Boot), las líneas del controlador y del
+ *       servicio activas y todas las peticiones registradas.</li>
+ * </ul>
+ * La consola se redirige a un fichero temporal para que la salida no se mezcle con la de JMH.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class AvailabilityLoggingBenchmark {
+
+    private static final int CATALOG_SIZE = 1000;
+
+    public enum Pipeline { SHIPPED, SYNC_VERBOSE }
+
+    @Param({"SHIPPED", "SYNC_VERBOSE"})
+    public Pipeline pipeline;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private PrintStream console;
+    private Path logFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        console = System.out;
+        logFile = Files.createTempFile("availability-logging", ".log");
+        System.setOut(new PrintStream(new FileOutputStream(logFile.toFile()), true));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BookServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:logging_benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false");
+        if (pipeline == Pipeline.SYNC_VERBOSE) {
+            builder.properties(
+                    "logging.config=classpath:org/springframework/boot/logging/logback/base.xml",
+                    "logging.level.com.ironlibrary.book_service.controller=DEBUG",
+                    "logging.level.com.ironlibrary.book_service.service=DEBUG",
+                    "book.logging.requests.sample-rates.[/api/books/{id}/availability]=1.0");
+        }
+        context = builder.run();
+        CatalogState.seed(context.getBean(JdbcTemplate.class), CATALOG_SIZE);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        System.setOut(console);
+        Files.deleteIfExists(logFile);
+    }
+
+    /**
+     * Un préstamo y su devolución, para que las copias disponibles no se agoten durante la medición
+     */
+    @Benchmark
+    public void borrowAndReturn() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1L);
+        mockMvc.perform(put("/api/books/{id}/availability", id).param("copies", "-1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/books/{id}/availability", id).param("copies", "1"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,59 @@
+package com.ironlibrary.book_service.benchmark;
+
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de un solo hilo para las rutas calientes de BookService.
+ * Ejecutar con ./mvnw -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Benchmark
+    public Book findBookById(CatalogState state) {
+        return state.bookService.findBookById(state.randomId());
+    }
+
+    @Benchmark
+    public boolean isBookAvailable(CatalogState state) {
+        return state.bookService.isBookAvailable(state.randomId());
+    }
+
+    @Benchmark
+    public List<BookSummary> findByTitle(CatalogState state) {
+        return state.bookService.findByTitle("soledad amor");
+    }
+
+    @Benchmark
+    public List<BookSummary> findByAuthor(CatalogState state) {
+        return state.bookService.findByAuthor("garcia");
+    }
+
+    @Benchmark
+    public List<BookSuggestion> suggest(CatalogState state) {
+        return state.bookService.suggest("cro", 10);
+    }
+
+    @Benchmark
+    public void updateAvailability(CatalogState state) {
+        long id = state.randomId();
+        state.bookService.updateAvailability(id, -1);
+        state.bookService.updateAvailability(id, 1);
+    }
+}
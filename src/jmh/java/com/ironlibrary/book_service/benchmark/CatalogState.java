@@ -0,0 +1,88 @@
+package com.ironlibrary.book_service.benchmark;
+
+import com.ironlibrary.book_service.BookServiceApplication;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.search.BookSearchIndex;
+import com.ironlibrary.book_service.search.BookSuggestionIndex;
+import com.ironlibrary.book_service.service.BookService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contexto Spring compartido por los benchmarks: H2 en memoria sembrado con un catálogo del tamaño indicado
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    static final int TOTAL_COPIES = 1000;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String[] WORDS = {
+            "cien", "años", "soledad", "crónica", "muerte", "amor", "tiempos", "cólera", "otoño", "patriarca",
+            "ciudad", "perros", "casa", "espíritus", "sombra", "viento", "nombre", "rosa", "ficciones", "aleph"
+    };
+    private static final String[] AUTHORS = {
+            "Gabriel García Márquez", "Isabel Allende", "Mario Vargas Llosa", "Jorge Luis Borges",
+            "Carlos Ruiz Zafón", "Umberto Eco", "Julio Cortázar", "Laura Esquivel"
+    };
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    ConfigurableApplicationContext context;
+    BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        seed(context.getBean(JdbcTemplate.class), catalogSize);
+        context.getBean(BookSearchIndex.class).rebuild();
+        context.getBean(BookSuggestionIndex.class).rebuild();
+        bookService = context.getBean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Insertar un catálogo de libros con ID 1..catalogSize y todas sus copias disponibles
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int catalogSize) {
+        Category[] categories = Category.values();
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= catalogSize; i++) {
+            String title = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            rows.add(new Object[]{title, AUTHORS[i % AUTHORS.length], "ISBN-BENCH-" + i,
+                    categories[i % categories.length].name(), TOTAL_COPIES, TOTAL_COPIES});
+            if (rows.size() == INSERT_BATCH_SIZE || i == catalogSize) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (title, author, isbn, category, total_copies, available_copies) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1L);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ironlibrary.book_service.benchmark;
+
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.repository.BookSpecifications;
+import com.ironlibrary.book_service.search.BookFilterIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro "categoría y agotados" con el índice de bitsets frente a las consultas JPA.
+ * Pensado para 1M de libros:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc -p catalogSize=1000000 CategoryFilterBenchmark"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CategoryFilterBenchmark {
+
+    private static final Category CATEGORY = Category.SCIENCE;
+
+    private BookFilterIndex bookFilterIndex;
+    private BookRepository bookRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState state) {
+        // Un libro de cada cien agotado, para que el filtro sea selectivo
+        state.context.getBean(JdbcTemplate.class).update("UPDATE books SET available_copies = 0 WHERE MOD(id, 100) = 0");
+        bookFilterIndex = state.context.getBean(BookFilterIndex.class);
+        bookFilterIndex.rebuild();
+        bookRepository = state.context.getBean(BookRepository.class);
+    }
+
+    @Benchmark
+    public List<Long> bitmapIdsOnly() {
+        return bookFilterIndex.find(CATEGORY, false);
+    }
+
+    @Benchmark
+    public List<BookSummary> bitmapHydrated(CatalogState state) {
+        return state.bookService.findByCategory(CATEGORY, false);
+    }
+
+    @Benchmark
+    public List<BookSummary> jpaSpecification() {
+        return bookRepository.findAll(BookSpecifications.matching(
+                        new BookSearchCriteria(CATEGORY, false, null, null, null)), Sort.by("id")).stream()
+                .map(BookSummary::from)
+                .toList();
+    }
+
+    @Benchmark
+    public List<BookSummary> jpaAvailableScan() {
+        return bookRepository.findAvailableSummaries();
+    }
+
+    @Benchmark
+    public List<BookSummary> bitmapAvailableHydrated(CatalogState state) {
+        return state.bookService.findAvailableBooks();
+    }
+}
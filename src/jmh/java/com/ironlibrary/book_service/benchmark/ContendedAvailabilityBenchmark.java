@@ -0,0 +1,40 @@
+package com.ironlibrary.book_service.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Préstamos y devoluciones concurrentes sobre un conjunto pequeño de libros "calientes"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ContendedAvailabilityBenchmark {
+
+    /** Número de libros que reciben todas las actualizaciones; 1 es el peor caso de contención */
+    @Param({"1", "8"})
+    public int hotBooks;
+
+    @Benchmark
+    public void borrowAndReturn(CatalogState state) {
+        long id = ThreadLocalRandom.current().nextLong(1, hotBooks + 1L);
+        state.bookService.updateAvailability(id, -1);
+        state.bookService.updateAvailability(id, 1);
+    }
+}
@@ -0,0 +1,248 @@
+package com.ironlibrary.book_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ironlibrary.book_service.dto.BookCacheStats;
+import com.ironlibrary.book_service.model.Book;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché de libros por ID en dos niveles: una caché local en memoria, acotada por tamaño y tiempo
+ * de vida, delante de un nivel compartido entre instancias ({@link SharedBookCache}).
+ * Guarda copias desvinculadas de JPA y entrega una copia nueva en cada lectura,
+ * de modo que quien llama puede modificar el libro sin alterar la caché.
+ * Al invalidar un libro se vacía el nivel compartido y se avisa al resto de instancias por
+ * {@link CacheInvalidationBus} para que lo quiten de su caché local.
+ * Las cargas concurrentes de un mismo libro que no está en la caché local se agrupan en una sola
+ * ({@link SingleFlight}): quienes llegan mientras otra petición lo carga esperan su resultado o su excepción.
+ * Una carga durante la que se invalida el libro devuelve lo que leyó pero no lo guarda en ningún nivel:
+ * pudo leerlo antes del commit del cambio.
+ * Publica sus métricas (cache.gets, cache.evictions, cache.size) con la etiqueta cache=books
+ * para el nivel local y cache=books-shared para el compartido, y cache.loads con result=loaded
+ * o result=coalesced para las cargas agrupadas.
+ */
+@Component
+@Slf4j
+public class BookCache implements MeterBinder {
+
+    // Contadores de invalidaciones por franja de IDs: una carga compara el de su libro antes y después
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final Cache<Long, Book> cache;
+    private final SharedBookCache sharedCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+    private final SingleFlight<Long, Book> loads = new SingleFlight<>();
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    /**
+     * Caché con los sustitutos en memoria del nivel compartido y de las invalidaciones
+     */
+    public BookCache(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, new InMemorySharedBookCache(maximumSize, ttl), new InMemoryCacheInvalidationBus());
+    }
+
+    @Autowired
+    public BookCache(@Value("${book.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${book.cache.ttl:30s}") Duration ttl,
+                     SharedBookCache sharedCache,
+                     CacheInvalidationBus invalidationBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.sharedCache = sharedCache;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::onInvalidationReceived);
+    }
+
+    /**
+     * Obtener un libro de la caché local, del nivel compartido o, si no está en ninguno, con el loader.
+     * La carga se hace fuera del mapa (no con cache.get(key, loader)) para no bloquear
+     * un segmento del mapa durante la consulta ni fijar el hilo virtual a su portador.
+     * Si ya hay una carga en curso del mismo libro, se espera a ella en lugar de lanzar otra.
+     */
+    public Book get(Long id, Function<Long, Book> loader) {
+        Book cached = cache.getIfPresent(id);
+        if (cached == null) {
+            cached = loads.load(id, key -> load(key, loader));
+        }
+        return cached.copy();
+    }
+
+    /**
+     * Obtener un libro solo si ya está en la caché local, sin cargarlo ni consultar el nivel compartido
+     * @return copia del libro, o null si no está
+     */
+    public Book getIfPresent(Long id) {
+        Book cached = cache.getIfPresent(id);
+        return cached != null ? cached.copy() : null;
+    }
+
+    /**
+     * Invalidar un libro. Si hay una transacción activa, el nivel local se invalida ya y de nuevo al
+     * terminar (para que una lectura concurrente no deje en caché el valor anterior al commit); el nivel
+     * compartido y el resto de instancias, solo al terminar, cuando el cambio ya es visible para ellas.
+     */
+    public void invalidate(Long id) {
+        invalidateLocal(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateLocal(id);
+                    invalidateShared(id);
+                }
+            });
+        } else {
+            invalidateShared(id);
+        }
+    }
+
+    /**
+     * Contadores de aciertos, fallos y desalojos de la caché local, aciertos del nivel compartido
+     * y cargas agrupadas. La tasa de agrupación es la fracción de fallos locales que se resolvieron
+     * con la carga de otra petición.
+     */
+    public BookCacheStats stats() {
+        CacheStats stats = cache.stats();
+        long hits = sharedHits.sum();
+        long lookups = hits + sharedMisses.sum();
+        long loaded = loads.loadCount();
+        long coalesced = loads.coalescedCount();
+        long misses = loaded + coalesced;
+        return new BookCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate(), hits, lookups - hits,
+                lookups == 0 ? 1.0 : (double) hits / lookups,
+                loaded, coalesced, misses == 0 ? 0.0 : (double) coalesced / misses);
+    }
+
+    /**
+     * Registrar las métricas de Caffeine en Micrometer, y las del nivel compartido con los mismos nombres
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books");
+        FunctionCounter.builder("cache.gets", sharedHits, LongAdder::sum)
+                .tags("cache", "books-shared", "result", "hit")
+                .description("Aciertos del nivel compartido de la caché de libros")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", sharedMisses, LongAdder::sum)
+                .tags("cache", "books-shared", "result", "miss")
+                .description("Fallos del nivel compartido de la caché de libros")
+                .register(registry);
+        FunctionCounter.builder("cache.loads", loads, SingleFlight::loadCount)
+                .tags("cache", "books", "result", "loaded")
+                .description("Cargas de libros ejecutadas tras un fallo de la caché local")
+                .register(registry);
+        FunctionCounter.builder("cache.loads", loads, SingleFlight::coalescedCount)
+                .tags("cache", "books", "result", "coalesced")
+                .description("Fallos de la caché local resueltos esperando la carga en curso de otra petición")
+                .register(registry);
+    }
+
+    private Book load(Long id, Function<Long, Book> loader) {
+        int stripe = stripe(id);
+        long generation = invalidations.get(stripe);
+        Book book = getShared(id);
+        boolean fromShared = book != null;
+        if (!fromShared) {
+            book = loader.apply(id).copy();
+        }
+        if (invalidations.get(stripe) != generation) {
+            return book;
+        }
+        if (!fromShared) {
+            putShared(id, book);
+        }
+        cache.put(id, book);
+        // Una invalidación entre la comprobación y los put: se deshacen para no dejar el valor anterior
+        if (invalidations.get(stripe) != generation) {
+            cache.asMap().remove(id, book);
+            if (!fromShared) {
+                evictShared(id);
+            }
+        }
+        return book;
+    }
+
+    private void invalidateLocal(Long id) {
+        invalidations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+        loads.forget(id);
+    }
+
+    /**
+     * Invalidación publicada por una instancia (también esta). Además del nivel local se vacía de nuevo el
+     * compartido: una carga de esta instancia pudo guardar en él el valor anterior después de que quien
+     * publicó lo vaciara y antes de recibir el aviso.
+     */
+    private void onInvalidationReceived(Long id) {
+        invalidateLocal(id);
+        evictShared(id);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (INVALIDATION_STRIPES - 1);
+    }
+
+    // Un fallo del nivel compartido no debe impedir servir el libro: se trata como ausente y se lee de la base de datos
+    private Book getShared(Long id) {
+        Book book;
+        try {
+            book = sharedCache.get(id);
+        } catch (RuntimeException e) {
+            log.warn("Nivel compartido de la caché no disponible al leer el libro ID {}", id, e);
+            book = null;
+        }
+        if (book != null) {
+            sharedHits.increment();
+        } else {
+            sharedMisses.increment();
+        }
+        return book;
+    }
+
+    private void evictShared(Long id) {
+        try {
+            sharedCache.evict(id);
+        } catch (RuntimeException e) {
+            // El nivel compartido puede servir el valor anterior hasta que caduque
+            log.error("No se pudo invalidar el libro ID {} en el nivel compartido de la caché", id, e);
+        }
+    }
+
+    private void putShared(Long id, Book book) {
+        try {
+            sharedCache.put(id, book);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar el libro ID {} en el nivel compartido de la caché", id, e);
+        }
+    }
+
+    private void invalidateShared(Long id) {
+        evictShared(id);
+        try {
+            invalidationBus.publish(id);
+        } catch (RuntimeException e) {
+            log.error("No se pudo publicar la invalidación del libro ID {}", id, e);
+        }
+    }
+}
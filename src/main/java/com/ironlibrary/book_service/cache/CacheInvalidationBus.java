@@ -0,0 +1,15 @@
+package com.ironlibrary.book_service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal de invalidaciones entre instancias (por ejemplo pub/sub de Redis).
+ * Cada instancia publica el ID del libro que ha modificado y todas, incluida ella misma,
+ * lo reciben para vaciar su caché local.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(Long bookId);
+
+    void subscribe(Consumer<Long> listener);
+}
@@ -0,0 +1,75 @@
+package com.ironlibrary.book_service.cache;
+
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo completo: un contador que aumenta con cada cambio confirmado.
+ * Sirve de ETag para los listados sin consultar la base de datos ni serializar la respuesta.
+ * <p>
+ * Aumenta con los BookChangedEvent de esta instancia, después de que los índices en memoria
+ * los hayan aplicado ({@link #INDEX_ORDER}), y con cada invalidación que llega por el
+ * {@link CacheInvalidationBus}, de modo que también cambia cuando escribe otra instancia
+ * o cuando se vuelcan los contadores de inventario. Lo que importa es el último aumento
+ * de cada cambio: ocurre cuando todo lo que sirve esta instancia ya lo refleja, y un listado
+ * calculado antes queda con un ETag que ya no coincide.
+ * <p>
+ * El ETag incluye un identificador de la instancia, de modo que tras un reinicio o en otra instancia
+ * nunca coincide con uno anterior.
+ */
+@Component
+public class CatalogVersion {
+
+    /**
+     * Orden de los listeners de los índices en memoria: antes que el de esta clase
+     */
+    public static final int INDEX_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private final String instanceId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicLong version = new AtomicLong();
+
+    public CatalogVersion(CacheInvalidationBus invalidationBus) {
+        invalidationBus.subscribe(bookId -> changed());
+    }
+
+    /**
+     * Cualquier cambio confirmado invalida los listados
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        changed();
+    }
+
+    /**
+     * Dar por cambiado el catálogo (por ejemplo, tras reconstruir o reconciliar un índice)
+     */
+    public void changed() {
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * ETag fuerte del catálogo en su versión actual
+     */
+    public String etag() {
+        return "\"catalog-" + instanceId + "-" + version.get() + "\"";
+    }
+
+    /**
+     * ETag de un listado leído de una réplica: no coincide con ninguna versión, así que el cliente
+     * que lo revalida recibe el listado completo
+     */
+    public String replicaEtag() {
+        return "\"catalog-" + instanceId + "-" + version.get() + "-replica\"";
+    }
+}
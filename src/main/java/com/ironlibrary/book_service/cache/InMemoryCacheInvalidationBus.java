@@ -0,0 +1,24 @@
+package com.ironlibrary.book_service.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal de invalidaciones dentro de la propia JVM: entrega cada ID a los suscriptores en el mismo hilo.
+ * Sustituto para tests y para una única instancia.
+ */
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long bookId) {
+        listeners.forEach(listener -> listener.accept(bookId));
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ironlibrary.book_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ironlibrary.book_service.model.Book;
+
+import java.time.Duration;
+
+/**
+ * Nivel compartido dentro de la propia JVM: sustituto para tests y para una única instancia.
+ * Con varias instancias hay que registrar un bean {@link SharedBookCache} respaldado por un almacén común.
+ */
+public class InMemorySharedBookCache implements SharedBookCache {
+
+    private final Cache<Long, Book> cache;
+
+    public InMemorySharedBookCache(long maximumSize, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Book get(Long id) {
+        Book book = cache.getIfPresent(id);
+        return book != null ? book.copy() : null;
+    }
+
+    @Override
+    public void put(Long id, Book book) {
+        cache.put(id, book.copy());
+    }
+
+    @Override
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ironlibrary.book_service.cache;
+
+import com.ironlibrary.book_service.model.Book;
+
+/**
+ * Nivel compartido de la caché de libros, común a todas las instancias del servicio
+ * (por ejemplo Redis o Hazelcast). {@link BookCache} lo consulta cuando el libro no está en su
+ * caché local y lo vacía al modificarse el libro.
+ * Las implementaciones guardan copias (o el libro serializado) y aplican su propio tiempo de vida.
+ */
+public interface SharedBookCache {
+
+    /**
+     * @return el libro, o null si no está
+     */
+    Book get(Long id);
+
+    void put(Long id, Book book);
+
+    void evict(Long id);
+}
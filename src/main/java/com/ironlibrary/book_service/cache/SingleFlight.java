@@ -0,0 +1,78 @@
+package com.ironlibrary.book_service.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Agrupa las cargas concurrentes de una misma clave: el primero que llega ejecuta la carga y
+ * quienes llegan mientras está en curso esperan y reciben su mismo resultado o excepción.
+ * La carga se ejecuta en el hilo de quien la inicia (no dentro de un compute del mapa),
+ * y la espera no fija el hilo virtual a su portador.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Desligar la carga en curso de una clave: quien llegue a partir de ahora inicia otra en lugar de
+     * esperar a una que pudo leer el dato antes de un cambio. La carga desligada sigue y entrega su
+     * resultado a quienes ya la esperaban; no guardarlo en ninguna caché es cosa de quien la lanzó.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Cargas ejecutadas
+     */
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Peticiones que se resolvieron con la carga de otra
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
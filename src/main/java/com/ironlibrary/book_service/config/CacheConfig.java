@@ -0,0 +1,34 @@
+package com.ironlibrary.book_service.config;
+
+import com.ironlibrary.book_service.cache.CacheInvalidationBus;
+import com.ironlibrary.book_service.cache.InMemoryCacheInvalidationBus;
+import com.ironlibrary.book_service.cache.InMemorySharedBookCache;
+import com.ironlibrary.book_service.cache.SharedBookCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Nivel compartido e invalidaciones de la caché de libros.
+ * Por defecto se usan los sustitutos en memoria; en un despliegue con varias instancias se registran
+ * implementaciones propias de {@link SharedBookCache} y {@link CacheInvalidationBus} y estas se descartan.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SharedBookCache sharedBookCache(@Value("${book.cache.shared.maximum-size:100000}") long maximumSize,
+                                           @Value("${book.cache.shared.ttl:5m}") Duration ttl) {
+        return new InMemorySharedBookCache(maximumSize, ttl);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationBus cacheInvalidationBus() {
+        return new InMemoryCacheInvalidationBus();
+    }
+}
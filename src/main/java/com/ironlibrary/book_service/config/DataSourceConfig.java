@@ -0,0 +1,73 @@
+package com.ironlibrary.book_service.config;
+
+import com.ironlibrary.book_service.datasource.ReadOnlyRoutingDataSource;
+import com.ironlibrary.book_service.datasource.ReplicaPool;
+import com.ironlibrary.book_service.datasource.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura. Solo se activa si hay réplicas en book.datasource.replicas.urls; sin ellas
+ * Spring Boot configura el DataSource de spring.datasource como siempre.
+ * Con réplicas, el pool principal se construye aquí con spring.datasource y spring.datasource.hikari,
+ * porque la autoconfiguración se retira en cuanto hay un DataSource propio.
+ */
+@Configuration
+@ConditionalOnProperty("book.datasource.replicas.urls")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(DataSourceProperties properties, ReplicaProperties replicaProperties,
+                                   HikariDataSource primaryDataSource) {
+        List<String> urls = replicaProperties.getUrls();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(replicaProperties.getUsername() != null
+                            ? replicaProperties.getUsername() : properties.determineUsername())
+                    .password(replicaProperties.getPassword() != null
+                            ? replicaProperties.getPassword() : properties.determinePassword())
+                    .build();
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            replicas.put(name, replica);
+        }
+        return new ReplicaPool(replicas, primaryDataSource);
+    }
+
+    /**
+     * DataSource de la aplicación (JPA, JdbcTemplate): elige principal o réplica en la primera sentencia
+     * de cada conexión, cuando ya se sabe si la transacción es de solo lectura
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primaryDataSource, replicaPool));
+    }
+}
@@ -0,0 +1,24 @@
+package com.ironlibrary.book_service.config;
+
+import com.ironlibrary.book_service.outbox.ChangeEventSink;
+import com.ironlibrary.book_service.outbox.InMemoryChangeEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Destino por defecto del relevo del outbox.
+ * Si no hay ningún {@link ChangeEventSink} (por ejemplo, el fichero NDJSON o uno propio sobre un broker),
+ * los cambios publicados se guardan en memoria para que el relevo tenga siempre dónde entregarlos.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ChangeEventSink.class)
+    public InMemoryChangeEventSink inMemoryChangeEventSink(
+            @Value("${book.outbox.memory-sink.capacity:10000}") int capacity) {
+        return new InMemoryChangeEventSink(capacity);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ironlibrary.book_service.config;
+
+import com.ironlibrary.book_service.logging.RequestLoggingInterceptor;
+import com.ironlibrary.book_service.logging.RequestLoggingProperties;
+import com.ironlibrary.book_service.web.CatalogETagInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuración de Spring MVC: interceptores comunes de la API
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RequestLoggingProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RequestLoggingInterceptor requestLoggingInterceptor;
+    private final CatalogETagInterceptor catalogETagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestLoggingInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(catalogETagInterceptor).addPathPatterns("/api/**");
+    }
+}
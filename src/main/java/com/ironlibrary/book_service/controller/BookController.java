@@ -1,16 +1,48 @@
 package com.ironlibrary.book_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ironlibrary.book_service.dto.AvailabilityBatchRequest;
+import com.ironlibrary.book_service.dto.AvailabilityBatchResponse;
+import com.ironlibrary.book_service.dto.BookCacheStats;
+import com.ironlibrary.book_service.dto.BookImportReport;
+import com.ironlibrary.book_service.dto.BookPage;
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.CatalogStats;
+import com.ironlibrary.book_service.dto.PageResponse;
+import com.ironlibrary.book_service.exception.BookConflictException;
+import com.ironlibrary.book_service.exporter.BookExportFormat;
+import com.ironlibrary.book_service.exporter.BookExportWriter;
+import com.ironlibrary.book_service.importer.BookImportFormat;
 import com.ironlibrary.book_service.model.Book;
 import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
+import com.ironlibrary.book_service.outbox.BookChangeStream;
+import com.ironlibrary.book_service.service.BookImportService;
 import com.ironlibrary.book_service.service.BookService;
+import com.ironlibrary.book_service.web.CatalogETag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controlador REST para operaciones de libros
@@ -23,95 +55,267 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class BookController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookChangeStream bookChangeStream;
+    private final AvailabilityWatch availabilityWatch;
+    private final ObjectMapper objectMapper;
 
     /**
      * GET /api/books - Obtener todos los libros
      */
+    @CatalogETag
     @GetMapping
     public ResponseEntity<List<Book>> getAllBooks() {
-        log.info("Solicitud GET para obtener todos los libros");
+        log.debug("Solicitud GET para obtener todos los libros");
         List<Book> books = bookService.findAllBooks();
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * GET /api/books?limit=100&after=0 - Obtener libros paginados por cursor
+     */
+    @CatalogETag
+    @GetMapping(params = "limit")
+    public ResponseEntity<BookPage> getBooksPage(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        log.debug("Solicitud GET para obtener página de libros después del ID: {}", after);
+        BookPage page = bookService.findBooksPage(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /api/books?format=ndjson - Exportar todos los libros en streaming (un JSON por línea)
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        log.debug("Solicitud GET para exportar todos los libros en NDJSON");
+        StreamingResponseBody body = out -> writeCatalog(out, BookExportFormat.NDJSON);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * GET /api/books?limit=100&format=ndjson - La exportación no se pagina: se rechaza en lugar de dejar
+     * que las dos asignaciones anteriores empaten
+     */
+    @GetMapping(params = {"limit", "format"})
+    public ResponseEntity<Void> rejectPagedStream() {
+        throw new IllegalArgumentException("Los parámetros limit y format no se pueden combinar");
+    }
+
+    /**
+     * GET /api/books/export?format=csv&gzip=true - Descargar el catálogo completo (CSV o NDJSON, opcionalmente gzip).
+     * Las filas se leen con un cursor de solo avance y se escriben directamente en la respuesta.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        log.debug("Solicitud GET para exportar el catálogo en formato {} (gzip: {})", format, gzip);
+        BookExportFormat exportFormat = BookExportFormat.fromParameter(format);
+        String filename = "books." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                writeCatalog(compressed, exportFormat);
+                compressed.finish();
+            } else {
+                writeCatalog(out, exportFormat);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private void writeCatalog(OutputStream out, BookExportFormat format) throws IOException {
+        BookExportWriter writer = format.open(out, objectMapper);
+        bookService.forEachBook(book -> {
+            try {
+                writer.write(book);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.finish();
+    }
+
     /**
      * GET /api/books/{id} - Obtener libro por ID
+     * Responde con ETag (versión del libro) y Last-Modified; con If-None-Match o If-Modified-Since
+     * vigentes Spring devuelve 304 sin serializar el libro.
      */
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        log.info("Solicitud GET para obtener libro con ID: {}", id);
+        log.debug("Solicitud GET para obtener libro con ID: {}", id);
         Book book = bookService.findBookById(id);
-        return ResponseEntity.ok(book);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (book.getVersion() != null) {
+            response.eTag(etag(book));
+        }
+        if (book.getUpdatedAt() != null) {
+            response.lastModified(book.getUpdatedAt());
+        }
+        return response.body(book);
+    }
+
+    /**
+     * ETag de un libro: su ID, su versión y sus copias disponibles. Con los contadores de inventario
+     * en memoria las copias cambian sin que cambie la versión hasta el volcado, así que la versión
+     * sola no identifica el cuerpo.
+     */
+    static String etag(Book book) {
+        return "\"" + book.getId() + "-" + book.getVersion() + "-" + book.getAvailableCopies() + "\"";
+    }
+
+    /**
+     * Versión contenida en un ETag "id-versión-copias" (o "id-versión"); un ETag de otro libro nunca coincide.
+     * Las copias no se comparan: los préstamos no deben hacer fallar la edición de los datos del libro.
+     */
+    private static long expectedVersion(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (!tag.startsWith("\"") || !tag.endsWith("\"") || tag.length() < 2) {
+            throw new IllegalArgumentException("Cabecera If-Match no válida: " + ifMatch);
+        }
+        if (!tag.startsWith(prefix)) {
+            throw new BookConflictException("El ETag de If-Match no corresponde al libro con ID " + id);
+        }
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        int copies = version.indexOf('-');
+        try {
+            return Long.parseLong(copies >= 0 ? version.substring(0, copies) : version);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cabecera If-Match no válida: " + ifMatch);
+        }
     }
 
     /**
      * GET /api/books/available - Obtener libros disponibles
      */
+    @CatalogETag
     @GetMapping("/available")
-    public ResponseEntity<List<Book>> getAvailableBooks() {
-        log.info("Solicitud GET para obtener libros disponibles");
-        List<Book> books = bookService.findAvailableBooks();
+    public ResponseEntity<List<BookSummary>> getAvailableBooks() {
+        log.debug("Solicitud GET para obtener libros disponibles");
+        List<BookSummary> books = bookService.findAvailableBooks();
         return ResponseEntity.ok(books);
     }
 
     /**
-     * GET /api/books/category?category=FICTION - Obtener libros por categoría
+     * GET /api/books/category?category=FICTION&available=true - Obtener libros por categoría (y disponibilidad)
      */
+    @CatalogETag
     @GetMapping("/category")
-    public ResponseEntity<List<Book>> getBooksByCategory(@RequestParam Category category) {
-        log.info("Solicitud GET para obtener libros de categoría: {}", category);
-        List<Book> books = bookService.findByCategory(category);
+    public ResponseEntity<List<BookSummary>> getBooksByCategory(@RequestParam Category category,
+                                                                @RequestParam(required = false) Boolean available) {
+        log.debug("Solicitud GET para obtener libros de categoría: {} (disponibles: {})", category, available);
+        List<BookSummary> books = available == null
+                ? bookService.findByCategory(category)
+                : bookService.findByCategory(category, available);
         return ResponseEntity.ok(books);
     }
 
     /**
      * GET /api/books/search/author?author=Garcia - Buscar por autor
      */
+    @CatalogETag
     @GetMapping("/search/author")
-    public ResponseEntity<List<Book>> getBooksByAuthor(@RequestParam String author) {
-        log.info("Solicitud GET para buscar libros por autor: {}", author);
-        List<Book> books = bookService.findByAuthor(author);
+    public ResponseEntity<List<BookSummary>> getBooksByAuthor(@RequestParam String author) {
+        log.debug("Solicitud GET para buscar libros por autor: {}", author);
+        List<BookSummary> books = bookService.findByAuthor(author);
         return ResponseEntity.ok(books);
     }
 
     /**
      * GET /api/books/search/title?title=Cien - Buscar por título
      */
+    @CatalogETag
     @GetMapping("/search/title")
-    public ResponseEntity<List<Book>> getBooksByTitle(@RequestParam String title) {
-        log.info("Solicitud GET para buscar libros por título: {}", title);
-        List<Book> books = bookService.findByTitle(title);
+    public ResponseEntity<List<BookSummary>> getBooksByTitle(@RequestParam String title) {
+        log.debug("Solicitud GET para buscar libros por título: {}", title);
+        List<BookSummary> books = bookService.findByTitle(title);
         return ResponseEntity.ok(books);
     }
 
+    /**
+     * GET /api/books/search?category=FICTION&available=true&author=garcía&page=0&size=20&sort=title,asc
+     * Búsqueda combinada: todos los filtros son opcionales (categoría, disponibilidad, título, autor, prefijo de ISBN)
+     */
+    @CatalogETag
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<BookSummary>> searchBooks(BookSearchCriteria criteria,
+                                                                 @PageableDefault(size = 20, sort = "title") Pageable pageable) {
+        log.debug("Solicitud GET para búsqueda combinada de libros: {}", criteria);
+        return ResponseEntity.ok(bookService.searchBooks(criteria, pageable));
+    }
+
+    /**
+     * GET /api/books/suggest?q=cie&limit=10 - Autocompletado por prefijo de título o autor
+     */
+    @CatalogETag
+    @GetMapping("/suggest")
+    public ResponseEntity<List<BookSuggestion>> suggest(@RequestParam String q,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        List<BookSuggestion> suggestions = bookService.suggest(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     /**
      * GET /api/books/{id}/available - Verificar disponibilidad
      */
     @GetMapping("/{id}/available")
     public ResponseEntity<Boolean> isBookAvailable(@PathVariable Long id) {
-        log.info("Solicitud GET para verificar disponibilidad del libro ID: {}", id);
+        log.debug("Solicitud GET para verificar disponibilidad del libro ID: {}", id);
         boolean available = bookService.isBookAvailable(id);
         return ResponseEntity.ok(available);
     }
 
+    /**
+     * GET /api/books/changes/stream - Suscripción (Server-Sent Events) a los cambios de libros.
+     * Con Last-Event-ID se reciben primero los cambios publicados después de ese evento.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("Nueva suscripción a cambios de libros (último evento: {})", lastEventId);
+        return bookChangeStream.subscribe(lastEventId);
+    }
+
+    /**
+     * GET /api/books/availability/stream?ids=1,2,3 - Suscripción (Server-Sent Events) a la disponibilidad
+     * de varios libros: primero su estado actual y después un evento cada vez que se agotan o vuelven a tener copias
+     */
+    @GetMapping("/availability/stream")
+    public SseEmitter streamAvailability(@RequestParam Set<Long> ids) {
+        log.debug("Nueva suscripción a la disponibilidad de los libros: {}", ids);
+        return availabilityWatch.subscribe(ids, id -> bookService.findBookById(id).getAvailableCopies());
+    }
+
     /**
      * POST /api/books - Crear nuevo libro
      */
     @PostMapping
     public ResponseEntity<Book> createBook(@Valid @RequestBody Book book) {
-        log.info("Solicitud POST para crear nuevo libro: {}", book.getTitle());
+        log.debug("Solicitud POST para crear nuevo libro: {}", book.getTitle());
         Book savedBook = bookService.saveBook(book);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedBook);
     }
 
     /**
      * PUT /api/books/{id} - Actualizar libro completo
+     * Con If-Match (ETag de GET /api/books/{id}) solo se aplica si el libro no ha cambiado; si no, 409.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody Book book) {
-        log.info("Solicitud PUT para actualizar libro con ID: {}", id);
-        Book updatedBook = bookService.updateBook(id, book);
+    public ResponseEntity<Book> updateBook(@PathVariable Long id, @Valid @RequestBody Book book,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("Solicitud PUT para actualizar libro con ID: {}", id);
+        Book updatedBook = ifMatch == null || ifMatch.equals("*")
+                ? bookService.updateBook(id, book)
+                : bookService.updateBook(id, book, expectedVersion(id, ifMatch));
         return ResponseEntity.ok(updatedBook);
     }
 
@@ -120,7 +324,7 @@ public class BookController {
      */
     @PatchMapping("/{id}/availability")
     public ResponseEntity<Void> updateAvailability(@PathVariable Long id, @RequestParam int copies) {
-        log.info("Solicitud PATCH para actualizar disponibilidad del libro ID: {} con {} copias", id, copies);
+        log.debug("Solicitud PATCH para actualizar disponibilidad del libro ID: {} con {} copias", id, copies);
         bookService.updateAvailability(id, copies);
         return ResponseEntity.ok().build();
     }
@@ -130,23 +334,61 @@ public class BookController {
      */
     @PutMapping("/{id}/availability")
     public ResponseEntity<Void> updateAvailabilityPut(@PathVariable Long id, @RequestParam int copies) {
-        log.info("Solicitud PUT para actualizar disponibilidad del libro ID: {} con {} copias", id, copies);
+        log.debug("Solicitud PUT para actualizar disponibilidad del libro ID: {} con {} copias", id, copies);
         bookService.updateAvailability(id, copies);
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * POST /api/books/availability/batch - Actualizar disponibilidad de varios libros (todo o nada)
+     */
+    @PostMapping("/availability/batch")
+    public ResponseEntity<AvailabilityBatchResponse> updateAvailabilityBatch(@Valid @RequestBody AvailabilityBatchRequest request) {
+        log.debug("Solicitud POST para actualizar disponibilidad en lote de {} libros", request.getChanges().size());
+        AvailabilityBatchResponse response = bookService.updateAvailabilityBatch(request.getChanges());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /api/books/import - Importación masiva desde CSV (text/csv) o NDJSON (application/x-ndjson)
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<BookImportReport> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) throws IOException {
+        log.debug("Solicitud POST para importar libros en formato {}", contentType);
+        BookImportReport report = bookImportService.importBooks(body, BookImportFormat.fromContentType(contentType));
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * DELETE /api/books/{id} - Eliminar libro
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        log.info("Solicitud DELETE para eliminar libro con ID: {}", id);
+        log.debug("Solicitud DELETE para eliminar libro con ID: {}", id);
         bookService.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Endpoint de health check
+     * GET /api/books/stats - Inventario por categoría: títulos, copias, disponibles y utilización
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStats> getCatalogStats() {
+        return ResponseEntity.ok(bookService.getCatalogStats());
+    }
+
+    /**
+     * GET /api/books/cache/stats - Estadísticas de la caché de libros
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<BookCacheStats> getCacheStats() {
+        return ResponseEntity.ok(bookService.getCacheStats());
+    }
+
+    /**
+     * Endpoint de health check (se mantiene por compatibilidad; el estado real y las métricas
+     * están en /actuator/health y /actuator/prometheus)
      */
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
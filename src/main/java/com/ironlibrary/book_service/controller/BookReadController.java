@@ -0,0 +1,103 @@
+package com.ironlibrary.book_service.controller;
+
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.PageResponse;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.service.BookReadService;
+import com.ironlibrary.book_service.web.CatalogETag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador REST de lecturas asíncronas, con las mismas respuestas que {@link BookController}.
+ * El hilo de la petición se libera en cuanto se delega la consulta; la respuesta se escribe al
+ * completarse el CompletableFuture (servlet asíncrono).
+ * Endpoints base: /api/async/books
+ */
+@RestController
+@RequestMapping("/api/async/books")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class BookReadController {
+
+    private final BookReadService bookReadService;
+
+    /**
+     * GET /api/async/books/{id} - Obtener libro por ID
+     */
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Book>> getBookById(@PathVariable Long id) {
+        log.debug("Solicitud GET asíncrona para obtener libro con ID: {}", id);
+        return bookReadService.findBookById(id).thenApply(book -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (book.getVersion() != null) {
+                response.eTag(BookController.etag(book));
+            }
+            if (book.getUpdatedAt() != null) {
+                response.lastModified(book.getUpdatedAt());
+            }
+            return response.body(book);
+        });
+    }
+
+    /**
+     * GET /api/async/books/{id}/available - Verificar disponibilidad
+     */
+    @GetMapping("/{id}/available")
+    public CompletableFuture<ResponseEntity<Boolean>> isBookAvailable(@PathVariable Long id) {
+        log.debug("Solicitud GET asíncrona para verificar disponibilidad del libro ID: {}", id);
+        return bookReadService.isBookAvailable(id).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /api/async/books/category?category=FICTION&available=true - Obtener libros por categoría (y disponibilidad)
+     */
+    @CatalogETag
+    @GetMapping("/category")
+    public CompletableFuture<ResponseEntity<List<BookSummary>>> getBooksByCategory(@RequestParam Category category,
+                                                                                   @RequestParam(required = false) Boolean available) {
+        log.debug("Solicitud GET asíncrona para obtener libros de categoría: {} (disponibles: {})", category, available);
+        return bookReadService.findByCategory(category, available).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /api/async/books/search/author?author=Garcia - Buscar por autor
+     */
+    @CatalogETag
+    @GetMapping("/search/author")
+    public CompletableFuture<ResponseEntity<List<BookSummary>>> getBooksByAuthor(@RequestParam String author) {
+        log.debug("Solicitud GET asíncrona para buscar libros por autor: {}", author);
+        return bookReadService.findByAuthor(author).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /api/async/books/search/title?title=Cien - Buscar por título
+     */
+    @CatalogETag
+    @GetMapping("/search/title")
+    public CompletableFuture<ResponseEntity<List<BookSummary>>> getBooksByTitle(@RequestParam String title) {
+        log.debug("Solicitud GET asíncrona para buscar libros por título: {}", title);
+        return bookReadService.findByTitle(title).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * GET /api/async/books/search?category=FICTION&available=true&page=0&size=20 - Búsqueda combinada
+     */
+    @CatalogETag
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<PageResponse<BookSummary>>> searchBooks(BookSearchCriteria criteria,
+                                                                                    @PageableDefault(size = 20, sort = "title") Pageable pageable) {
+        log.debug("Solicitud GET asíncrona para búsqueda combinada de libros: {}", criteria);
+        return bookReadService.searchBooks(criteria, pageable).thenApply(ResponseEntity::ok);
+    }
+}
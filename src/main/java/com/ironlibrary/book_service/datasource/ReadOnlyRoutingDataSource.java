@@ -0,0 +1,30 @@
+package com.ironlibrary.book_service.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a las réplicas y el resto a la principal.
+ * Debe ir detrás de un LazyConnectionDataSourceProxy: el gestor de transacciones pide la conexión
+ * antes de marcar la transacción como de solo lectura, y el proxy retrasa la elección hasta la primera sentencia.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replicas) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replicas));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReplicaRouting.replicaAllowed() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ironlibrary.book_service.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conjunto de réplicas de lectura. Cada conexión se pide a la siguiente réplica en turno rotatorio,
+ * saltando las marcadas como caídas. Una réplica se marca como caída cuando no entrega una conexión
+ * y vuelve al turno cuando la comprobación periódica consigue conectar de nuevo.
+ * Si no queda ninguna disponible, las lecturas van a la base de datos principal.
+ */
+@Slf4j
+public class ReplicaPool extends AbstractDataSource implements MeterBinder {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * @param replicas réplicas por nombre, en el orden del turno
+     * @param primary base de datos a la que ir si no hay ninguna réplica disponible
+     */
+    public ReplicaPool(Map<String, DataSource> replicas, DataSource primary) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Debe haber al menos una réplica");
+        }
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.primary = primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                replica.healthy = false;
+                log.warn("Réplica {} marcada como caída: no entrega conexiones", replica.name, e);
+            }
+        }
+        fallbacks.increment();
+        log.debug("Ninguna réplica disponible, lectura en la base de datos principal");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Las réplicas usan las credenciales de su configuración");
+    }
+
+    /**
+     * Volver a poner en turno las réplicas caídas que ya aceptan conexiones
+     */
+    @Scheduled(fixedDelayString = "${book.datasource.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                continue;
+            }
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.healthy = true;
+                    log.info("Réplica {} disponible de nuevo", replica.name);
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Réplica {} sigue caída: {}", replica.name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Número de réplicas en turno
+     */
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    /**
+     * Conexiones de lectura que fueron a la base de datos principal por no haber réplicas disponibles
+     */
+    public long fallbackCount() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("book.datasource.replica.up", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .description("1 si la réplica está en turno, 0 si está marcada como caída")
+                    .register(registry);
+        }
+        FunctionCounter.builder("book.datasource.replica.fallbacks", fallbacks, LongAdder::sum)
+                .description("Lecturas enviadas a la base de datos principal por no haber réplicas disponibles")
+                .register(registry);
+    }
+
+    /**
+     * Cerrar los pools de las réplicas al parar la aplicación
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("No se pudo cerrar la réplica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ironlibrary.book_service.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración de las réplicas de lectura de la base de datos
+ */
+@Data
+@ConfigurationProperties(prefix = "book.datasource.replicas")
+public class ReplicaProperties {
+
+    /**
+     * URL JDBC de cada réplica, en el orden del turno
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Usuario de las réplicas; si no se indica, el de spring.datasource
+     */
+    private String username;
+
+    /**
+     * Contraseña de las réplicas; si no se indica, la de spring.datasource
+     */
+    private String password;
+
+    /**
+     * Conexiones máximas del pool de cada réplica
+     */
+    private int maximumPoolSize = 30;
+
+    /**
+     * Espera máxima por una conexión antes de dar la réplica por caída y pasar a la siguiente
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,76 @@
+package com.ironlibrary.book_service.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Decide a qué base de datos va cada conexión: las transacciones de solo lectura a las réplicas
+ * y el resto a la principal. Las lecturas que no toleran el retraso de replicación (las que llenan
+ * la caché o construyen un estado en memoria que luego se mantiene con los eventos locales)
+ * se ejecutan con {@link #onPrimary(Supplier)}.
+ * Solo afecta a conexiones que aún no se han obtenido: dentro de una transacción de solo lectura que
+ * ya ha consultado una réplica, la lectura sigue en ella.
+ * Sin réplicas configuradas no tiene ningún efecto.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Ejecutar una lectura contra la base de datos principal aunque la transacción sea de solo lectura
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Enviar a la principal todas las lecturas del hilo hasta {@link #unpin()}, para cuando el final
+     * no está en el mismo bloque (por ejemplo, entre preHandle y afterCompletion de una petición)
+     */
+    public static void pinToPrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Llevar a otro hilo la decisión de este: si aquí las lecturas deben ir a la principal, allí también
+     */
+    public static <T> Supplier<T> inheriting(Supplier<T> action) {
+        if (!Boolean.TRUE.equals(PRIMARY_REQUIRED.get())) {
+            return action;
+        }
+        return () -> onPrimary(action);
+    }
+
+    /**
+     * Si la conexión que se obtenga ahora puede ir a una réplica
+     */
+    static boolean replicaAllowed() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+}
@@ -0,0 +1,23 @@
+package com.ironlibrary.book_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Petición para actualizar la disponibilidad de varios libros en una sola operación
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityBatchRequest {
+
+    @NotEmpty(message = "Debe indicarse al menos un ajuste")
+    @Size(max = 500, message = "No se pueden enviar más de 500 ajustes por lote")
+    private List<@Valid AvailabilityChange> changes;
+}
@@ -0,0 +1,19 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Respuesta de una actualización de disponibilidad en lote
+ * Si applied es false no se ha aplicado ningún ajuste.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityBatchResponse {
+    private boolean applied;
+    private List<AvailabilityChangeResult> results;
+}
@@ -0,0 +1,21 @@
+package com.ironlibrary.book_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ajuste de copias disponibles para un libro (negativo = préstamo, positivo = devolución)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityChange {
+
+    @NotNull(message = "El ID del libro es obligatorio")
+    private Long bookId;
+
+    @NotNull(message = "El número de copias es obligatorio")
+    private Integer delta;
+}
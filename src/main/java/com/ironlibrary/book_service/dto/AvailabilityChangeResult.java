@@ -0,0 +1,29 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un ajuste de disponibilidad dentro de un lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityChangeResult {
+
+    /**
+     * Estado de cada ajuste del lote
+     */
+    public enum Status {
+        OK,
+        INSUFFICIENT_COPIES,
+        EXCEEDS_TOTAL_COPIES,
+        BOOK_NOT_FOUND
+    }
+
+    private Long bookId;
+    private int delta;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado de disponibilidad de un libro enviado a los suscriptores de /api/books/availability/stream
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityNotification {
+    private Long bookId;
+    private boolean available;
+    private int availableCopies;
+}
@@ -0,0 +1,25 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estadísticas de la caché de libros: nivel local, nivel compartido y cargas agrupadas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCacheStats {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+    private long sharedHitCount;
+    private long sharedMissCount;
+    private double sharedHitRate;
+    private long loadCount;
+    private long coalescedCount;
+    private double coalescedRate;
+}
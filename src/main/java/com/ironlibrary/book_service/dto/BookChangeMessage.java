@@ -0,0 +1,32 @@
+package com.ironlibrary.book_service.dto;
+
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.OutboxEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Cambio de un libro tal como se publica a los consumidores (sinks y /api/books/changes/stream).
+ * El ID es el del outbox y sirve para descartar duplicados; no sigue el orden de publicación
+ * (las suscripciones SSE se reanudan con el id del evento SSE).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangeMessage {
+    private Long id;
+    private BookChangedEvent.Type type;
+    private Long bookId;
+    private int availabilityDelta;
+    private Integer availableCopies;
+    private Integer totalCopies;
+    private Instant occurredAt;
+
+    public static BookChangeMessage from(OutboxEvent event) {
+        return new BookChangeMessage(event.getId(), event.getType(), event.getBookId(), event.getAvailabilityDelta(),
+                event.getAvailableCopies(), event.getTotalCopies(), event.getCreatedAt());
+    }
+}
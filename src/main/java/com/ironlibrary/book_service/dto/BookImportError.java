@@ -0,0 +1,17 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila rechazada en una importación masiva
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportError {
+    private long line;
+    private String isbn;
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva: filas recibidas, importadas y rechazadas con su motivo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportReport {
+    private int received;
+    private int imported;
+    private int rejected;
+    private List<BookImportError> errors;
+}
@@ -0,0 +1,20 @@
+package com.ironlibrary.book_service.dto;
+
+import com.ironlibrary.book_service.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de libros paginada por cursor
+ * nextCursor es el valor a enviar como "after" para la siguiente página (null si no hay más)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPage {
+    private List<Book> items;
+    private Long nextCursor;
+}
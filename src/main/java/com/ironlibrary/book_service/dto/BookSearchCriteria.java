@@ -0,0 +1,20 @@
+package com.ironlibrary.book_service.dto;
+
+import com.ironlibrary.book_service.model.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros opcionales de la búsqueda combinada; los que llegan vacíos no se aplican
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchCriteria {
+    private Category category;
+    private Boolean available;
+    private String title;
+    private String author;
+    private String isbn;
+}
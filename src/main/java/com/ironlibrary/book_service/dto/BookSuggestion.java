@@ -0,0 +1,26 @@
+package com.ironlibrary.book_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sugerencia de autocompletado: texto del título o autor que coincide y el libro al que pertenece
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestion {
+
+    /**
+     * Campo del libro del que procede la sugerencia
+     */
+    public enum Field {
+        TITLE,
+        AUTHOR
+    }
+
+    private Long id;
+    private String text;
+    private Field field;
+}
@@ -0,0 +1,34 @@
+package com.ironlibrary.book_service.dto;
+
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vista reducida de un libro para los listados.
+ * Se construye directamente desde la consulta (proyección), sin cargar entidades gestionadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSummary {
+    private Long id;
+    private String title;
+    private String author;
+    private Category category;
+    private Integer availableCopies;
+
+    /**
+     * Verifica si el libro está disponible para préstamo
+     */
+    public boolean isAvailable() {
+        return availableCopies != null && availableCopies > 0;
+    }
+
+    public static BookSummary from(Book book) {
+        return new BookSummary(book.getId(), book.getTitle(), book.getAuthor(),
+                book.getCategory(), book.getAvailableCopies());
+    }
+}
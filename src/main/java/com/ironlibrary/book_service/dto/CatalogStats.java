@@ -0,0 +1,47 @@
+package com.ironlibrary.book_service.dto;
+
+import com.ironlibrary.book_service.model.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estadísticas de inventario del catálogo: totales y desglose por categoría
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStats {
+    private long titles;
+    private long totalCopies;
+    private long availableCopies;
+    private double utilization;
+    private List<CategoryStats> categories;
+    private Instant reconciledAt;
+
+    /**
+     * Sumar las categorías recibidas; las que no aparecen se incluyen con valores a cero
+     */
+    public static CatalogStats from(List<CategoryStats> rows, Instant reconciledAt) {
+        List<CategoryStats> categories = new ArrayList<>();
+        long titles = 0;
+        long totalCopies = 0;
+        long availableCopies = 0;
+        for (Category category : Category.values()) {
+            CategoryStats stats = rows.stream()
+                    .filter(row -> row.getCategory() == category)
+                    .findFirst()
+                    .orElseGet(() -> new CategoryStats(category, 0L, 0L, 0L));
+            categories.add(stats);
+            titles += stats.getTitles();
+            totalCopies += stats.getTotalCopies();
+            availableCopies += stats.getAvailableCopies();
+        }
+        return new CatalogStats(titles, totalCopies, availableCopies,
+                CategoryStats.utilization(totalCopies, availableCopies), categories, reconciledAt);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ironlibrary.book_service.dto;
+
+import com.ironlibrary.book_service.model.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inventario de una categoría: títulos, copias y fracción de copias prestadas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStats {
+    private Category category;
+    private long titles;
+    private long totalCopies;
+    private long availableCopies;
+    private double utilization;
+
+    /**
+     * Constructor usado por la consulta agregada (GROUP BY) de BookRepository
+     */
+    public CategoryStats(Category category, Long titles, Long totalCopies, Long availableCopies) {
+        this(category, titles, totalCopies, availableCopies, utilization(totalCopies, availableCopies));
+    }
+
+    public static double utilization(long totalCopies, long availableCopies) {
+        return totalCopies == 0 ? 0.0 : (double) (totalCopies - availableCopies) / totalCopies;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ironlibrary.book_service.event;
+
+import com.ironlibrary.book_service.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Evento publicado por BookService cada vez que cambia un libro.
+ * before y after son copias desvinculadas; en los cambios de disponibilidad
+ * solo se conoce el ajuste aplicado (availabilityDelta).
+ */
+@Data
+@AllArgsConstructor
+public class BookChangedEvent {
+
+    /**
+     * Tipo de cambio
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        AVAILABILITY_CHANGED
+    }
+
+    private Type type;
+    private Long bookId;
+    private Book before;
+    private Book after;
+    private int availabilityDelta;
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), null, book.copy(), 0);
+    }
+
+    public static BookChangedEvent updated(Book before, Book after) {
+        return new BookChangedEvent(Type.UPDATED, after.getId(), before.copy(), after.copy(), 0);
+    }
+
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(Type.DELETED, book.getId(), book.copy(), null, 0);
+    }
+
+    public static BookChangedEvent availabilityChanged(Long bookId, int delta) {
+        return new BookChangedEvent(Type.AVAILABILITY_CHANGED, bookId, null, null, delta);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ironlibrary.book_service.exception;
+
+import com.ironlibrary.book_service.dto.AvailabilityChangeResult;
+
+import java.util.List;
+
+/**
+ * Excepción lanzada cuando algún ajuste de un lote de disponibilidad no es válido.
+ * Provoca el rollback de todo el lote.
+ */
+public class AvailabilityBatchException extends RuntimeException {
+
+    private final List<AvailabilityChangeResult> results;
+
+    public AvailabilityBatchException(String message, List<AvailabilityChangeResult> results) {
+        super(message);
+        this.results = results;
+    }
+
+    public List<AvailabilityChangeResult> getResults() {
+        return results;
+    }
+}
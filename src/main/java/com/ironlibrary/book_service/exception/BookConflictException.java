@@ -0,0 +1,11 @@
+package com.ironlibrary.book_service.exception;
+
+/**
+ * Excepción lanzada cuando un libro fue modificado por otra operación
+ * (versión distinta de la esperada o reintentos agotados)
+ */
+public class BookConflictException extends RuntimeException {
+    public BookConflictException(String message) {
+        super(message);
+    }
+}
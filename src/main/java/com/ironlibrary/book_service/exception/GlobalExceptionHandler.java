@@ -1,6 +1,8 @@
 package com.ironlibrary.book_service.exception;
 
+import com.ironlibrary.book_service.dto.AvailabilityBatchResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -50,6 +52,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Maneja conflictos de versión: el libro cambió desde que el cliente lo leyó
+     */
+    @ExceptionHandler(BookConflictException.class)
+    public ResponseEntity<ErrorResponse> handleBookConflict(BookConflictException ex, WebRequest request) {
+        log.warn("Conflicto de versión: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja escrituras rechazadas por @Version (otra operación modificó el libro antes del commit)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex, WebRequest request) {
+        log.warn("Escritura rechazada por bloqueo optimista: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "El libro ha sido modificado por otra operación; vuelva a leerlo y reintente",
+                LocalDateTime.now(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Maneja lotes de disponibilidad rechazados (ningún ajuste se aplica)
+     */
+    @ExceptionHandler(AvailabilityBatchException.class)
+    public ResponseEntity<AvailabilityBatchResponse> handleAvailabilityBatch(AvailabilityBatchException ex) {
+        log.error("Lote de disponibilidad rechazado: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new AvailabilityBatchResponse(false, ex.getResults()));
+    }
+
     /**
      * Maneja errores de argumentos ilegales (ISBN duplicado, etc.)
      */
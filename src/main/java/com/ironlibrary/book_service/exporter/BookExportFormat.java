@@ -0,0 +1,49 @@
+package com.ironlibrary.book_service.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Formatos de exportación del catálogo
+ */
+public enum BookExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    BookExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public BookExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvBookExportWriter(out);
+            case NDJSON -> new NdjsonBookExportWriter(out, objectMapper);
+        };
+    }
+
+    public static BookExportFormat fromParameter(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + format);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ironlibrary.book_service.exporter;
+
+import com.ironlibrary.book_service.model.Book;
+
+import java.io.IOException;
+
+/**
+ * Escritor de exportación: serializa libros uno a uno sobre un flujo de salida con buffer propio
+ */
+public interface BookExportWriter {
+
+    void write(Book book) throws IOException;
+
+    /**
+     * Vaciar los buffers pendientes sin cerrar el flujo de salida
+     */
+    void finish() throws IOException;
+}
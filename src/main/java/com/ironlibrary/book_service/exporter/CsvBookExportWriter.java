@@ -0,0 +1,59 @@
+package com.ironlibrary.book_service.exporter;
+
+import com.ironlibrary.book_service.model.Book;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV con cabecera, compatible con la importación masiva (la columna id se ignora al importar)
+ */
+public class CsvBookExportWriter implements BookExportWriter {
+
+    private static final String HEADER = "id,title,author,isbn,category,totalCopies,availableCopies";
+
+    private final Writer writer;
+
+    public CsvBookExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BookExportFormat.BUFFER_SIZE);
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(Book book) throws IOException {
+        writer.write(String.valueOf(book.getId()));
+        writer.write(',');
+        writeField(book.getTitle());
+        writer.write(',');
+        writeField(book.getAuthor());
+        writer.write(',');
+        writeField(book.getIsbn());
+        writer.write(',');
+        writer.write(book.getCategory().name());
+        writer.write(',');
+        writer.write(String.valueOf(book.getTotalCopies()));
+        writer.write(',');
+        writer.write(String.valueOf(book.getAvailableCopies()));
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,44 @@
+package com.ironlibrary.book_service.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ironlibrary.book_service.model.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * NDJSON: un objeto Book por línea, escrito con un único JsonGenerator (sin byte[] intermedios por libro)
+ */
+public class NdjsonBookExportWriter implements BookExportWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter bookWriter;
+    private boolean empty = true;
+
+    public NdjsonBookExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory()
+                .createGenerator(new BufferedOutputStream(out, BookExportFormat.BUFFER_SIZE))
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+        this.bookWriter = objectMapper.writerFor(Book.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void write(Book book) throws IOException {
+        bookWriter.writeValue(generator, book);
+        empty = false;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!empty) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
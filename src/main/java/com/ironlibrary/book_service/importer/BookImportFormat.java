@@ -0,0 +1,43 @@
+package com.ironlibrary.book_service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ironlibrary.book_service.model.Book;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Formatos aceptados por la importación masiva de libros
+ */
+public enum BookImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    BookImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public BookRowReader open(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvBookRowReader(reader);
+            case NDJSON -> new NdjsonBookRowReader(reader, objectMapper.readerFor(Book.class));
+        };
+    }
+
+    public static BookImportFormat fromContentType(String contentType) {
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (BookImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(type)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Formato de importación no soportado: " + contentType);
+    }
+}
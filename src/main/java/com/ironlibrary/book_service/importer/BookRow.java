@@ -0,0 +1,21 @@
+package com.ironlibrary.book_service.importer;
+
+import com.ironlibrary.book_service.model.Book;
+
+/**
+ * Fila leída de un fichero de importación: el libro o el motivo por el que no se pudo leer
+ */
+public record BookRow(long line, Book book, String error) {
+
+    public static BookRow of(long line, Book book) {
+        return new BookRow(line, book, null);
+    }
+
+    public static BookRow invalid(long line, String error) {
+        return new BookRow(line, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ironlibrary.book_service.importer;
+
+import java.io.IOException;
+
+/**
+ * Lector secuencial de filas de importación; no carga el fichero completo en memoria
+ */
+public interface BookRowReader {
+
+    /**
+     * Siguiente fila no vacía, o null al final del fichero
+     */
+    BookRow next() throws IOException;
+}
@@ -0,0 +1,136 @@
+package com.ironlibrary.book_service.importer;
+
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector de CSV con cabecera: title, author, isbn, category, totalCopies y, opcionalmente, availableCopies.
+ * Admite campos entre comillas dobles (con "" como escape), pero no saltos de línea dentro de un campo.
+ */
+public class CsvBookRowReader implements BookRowReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "author", "isbn", "category", "totalcopies");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long line;
+
+    public CsvBookRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        line = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("El CSV está vacío: falta la cabecera");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(normalizeColumn(names.get(i)), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas en la cabecera del CSV: " + missing);
+        }
+    }
+
+    @Override
+    public BookRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (!text.isBlank()) {
+                return parse(text);
+            }
+        }
+        return null;
+    }
+
+    private BookRow parse(String text) {
+        List<String> fields;
+        try {
+            fields = split(text);
+        } catch (IllegalArgumentException e) {
+            return BookRow.invalid(line, e.getMessage());
+        }
+
+        Book book = new Book();
+        book.setTitle(field(fields, "title"));
+        book.setAuthor(field(fields, "author"));
+        book.setIsbn(field(fields, "isbn"));
+
+        String category = field(fields, "category");
+        if (category != null) {
+            try {
+                book.setCategory(Category.valueOf(category.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return BookRow.invalid(line, "Categoría no válida: " + category);
+            }
+        }
+
+        try {
+            book.setTotalCopies(parseInteger(field(fields, "totalcopies")));
+            book.setAvailableCopies(parseInteger(field(fields, "availablecopies")));
+        } catch (NumberFormatException e) {
+            return BookRow.invalid(line, "Número de copias no válido: " + e.getMessage());
+        }
+        return BookRow.of(line, book);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer parseInteger(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static String normalizeColumn(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+    }
+
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la fila");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
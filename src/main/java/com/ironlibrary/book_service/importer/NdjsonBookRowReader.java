@@ -0,0 +1,45 @@
+package com.ironlibrary.book_service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.ironlibrary.book_service.model.Book;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lector de NDJSON: un objeto Book por línea. El id recibido se ignora.
+ */
+public class NdjsonBookRowReader implements BookRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader bookReader;
+    private long line;
+
+    public NdjsonBookRowReader(BufferedReader reader, ObjectReader bookReader) {
+        this.reader = reader;
+        this.bookReader = bookReader;
+    }
+
+    @Override
+    public BookRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (!text.isBlank()) {
+                return parse(text);
+            }
+        }
+        return null;
+    }
+
+    private BookRow parse(String text) {
+        try {
+            Book book = bookReader.readValue(text);
+            book.setId(null);
+            return BookRow.of(line, book);
+        } catch (JsonProcessingException e) {
+            return BookRow.invalid(line, "JSON no válido: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.ironlibrary.book_service.inventory;
+
+import com.ironlibrary.book_service.cache.BookCache;
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.exception.BookNotFoundException;
+import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.InventoryFlush;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
+import com.ironlibrary.book_service.outbox.BookOutbox;
+import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.repository.InventoryFlushRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Modo de inventario de alto rendimiento (book.inventory.write-behind.enabled=true).
+ * Las copias disponibles de cada libro tocado viven en una celda atómica en memoria que aplica
+ * los límites 0..totalCopies sin bloquear la fila en MySQL; cada ajuste aceptado se anota en un
+ * diario local y se acumula como pendiente. Periódicamente los pendientes se suman por libro y se
+ * escriben en un único lote JDBC, junto con el registro del segmento del diario que cubren.
+ * Al arrancar se aplican los segmentos que no llegaron a la base de datos.
+ * En el outbox se registra un cambio por libro y volcado, con el ajuste acumulado.
+ * <p>
+ * Mientras está activo, la disponibilidad en la base de datos (y en los listados que la leen)
+ * puede ir hasta un intervalo de volcado por detrás; la consulta por ID se corrige con la celda.
+ */
+@Component
+@Slf4j
+public class InventoryCounters {
+
+    private final BookRepository bookRepository;
+    private final InventoryFlushRepository inventoryFlushRepository;
+    private final BookCache bookCache;
+    private final BookOutbox bookOutbox;
+    private final AvailabilityWatch availabilityWatch;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final InventoryJournal journal;
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    // Los ajustes comparten el bloqueo de lectura; rotar el diario y recalcular celdas requiere el de escritura
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Un solo volcado a la vez; recalcular una celda espera a que no haya ninguno en curso
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Segmentos cerrados cuyo volcado aún no se ha confirmado (protegido por flushLock)
+    private final Map<String, List<AvailabilityChange>> unapplied = new LinkedHashMap<>();
+
+    public InventoryCounters(BookRepository bookRepository,
+                             InventoryFlushRepository inventoryFlushRepository,
+                             BookCache bookCache,
+                             BookOutbox bookOutbox,
+                             AvailabilityWatch availabilityWatch,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${book.inventory.write-behind.enabled:false}") boolean enabled,
+                             @Value("${book.inventory.journal-dir:data/inventory-journal}") Path journalDirectory) {
+        this.bookRepository = bookRepository;
+        this.inventoryFlushRepository = inventoryFlushRepository;
+        this.bookCache = bookCache;
+        this.bookOutbox = bookOutbox;
+        this.availabilityWatch = availabilityWatch;
+        // Transacción propia aunque se llame desde otra: un volcado confirmado no depende de la transacción
+        // de quien lo pidió, y el segmento del diario solo se borra después de ese commit
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.journal = new InventoryJournal(journalDirectory);
+    }
+
+    /**
+     * Aplicar los segmentos pendientes de una ejecución anterior y abrir el diario
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        for (String segment : journal.leftoverSegments()) {
+            recover(segment);
+        }
+        journal.open();
+        log.info("Inventario en memoria con escritura diferida activado");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ajustar las copias disponibles en memoria
+     * @return copias disponibles y versión de la celda tras el ajuste
+     * @throws InsufficientCopiesException si no quedan copias suficientes
+     * @throws IllegalArgumentException si se superaría el total de copias
+     */
+    public Adjusted adjust(Long id, int delta) {
+        while (true) {
+            Cell cell = cell(id);
+            lock.readLock().lock();
+            try {
+                if (cells.get(id) != cell) {
+                    // La celda se eliminó entre medias (libro borrado): volver a resolverla
+                    continue;
+                }
+                long state;
+                int available;
+                do {
+                    state = cell.state.get();
+                    available = available(state);
+                    if (available + delta < 0) {
+                        throw new InsufficientCopiesException("No hay suficientes copias disponibles. Disponibles: "
+                                + available + ", Solicitadas: " + Math.abs(delta));
+                    }
+                    if (available + delta > cell.total) {
+                        throw new IllegalArgumentException("Las copias disponibles no pueden exceder el total de copias");
+                    }
+                } while (!cell.state.compareAndSet(state, pack(version(state) + 1, available + delta)));
+                cell.pending.addAndGet(delta);
+                try {
+                    journal.append(id, delta);
+                } catch (IOException e) {
+                    // Sin diario el ajuste no es recuperable: se deshace y se informa del error
+                    cell.add(-delta);
+                    cell.pending.addAndGet(-delta);
+                    throw new UncheckedIOException("No se pudo escribir en el diario de inventario", e);
+                }
+                cell.changedAt = Instant.now();
+                return new Adjusted(available + delta, version(state) + 1);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Ajustar varios libros en memoria, todo o nada. Cada ajuste se comprueba en orden sobre el resultado
+     * de los anteriores (como el lote JDBC) y solo si caben todos se aplican, con una sola línea en el diario.
+     * Se hace con el bloqueo de escritura para que ningún ajuste suelto cambie las celdas entre la
+     * comprobación y la aplicación.
+     * @return por cada ajuste, las copias disponibles y la versión de la celda tras aplicarlo, o null si se
+     *         rechazó (libro inexistente o fuera de 0..totalCopies); si hay alguno rechazado no se aplica ninguno
+     *         y los demás llevan el resultado que habrían tenido
+     */
+    public Adjusted[] adjustAll(List<AvailabilityChange> changes) {
+        Map<Long, Cell> resolved = new HashMap<>();
+        for (AvailabilityChange change : changes) {
+            if (!resolved.containsKey(change.getBookId())) {
+                Cell cell;
+                try {
+                    cell = cell(change.getBookId());
+                } catch (BookNotFoundException e) {
+                    cell = null;
+                }
+                resolved.put(change.getBookId(), cell);
+            }
+        }
+        Adjusted[] results = new Adjusted[changes.size()];
+        boolean rejected = false;
+        lock.writeLock().lock();
+        try {
+            Map<Long, Integer> tentative = new HashMap<>();
+            for (int i = 0; i < changes.size(); i++) {
+                AvailabilityChange change = changes.get(i);
+                Cell cell = resolved.get(change.getBookId());
+                // Una celda que ya no está en el mapa es de un libro borrado entre medias
+                if (cell == null || cells.get(change.getBookId()) != cell) {
+                    rejected = true;
+                    continue;
+                }
+                int available = tentative.getOrDefault(change.getBookId(), cell.available()) + change.getDelta();
+                if (available < 0 || available > cell.total) {
+                    rejected = true;
+                    continue;
+                }
+                tentative.put(change.getBookId(), available);
+                results[i] = new Adjusted(available, version(cell.state.get()));
+            }
+            if (rejected) {
+                return results;
+            }
+            try {
+                journal.appendAll(changes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo escribir en el diario de inventario", e);
+            }
+            Instant now = Instant.now();
+            for (int i = 0; i < changes.size(); i++) {
+                AvailabilityChange change = changes.get(i);
+                Cell cell = resolved.get(change.getBookId());
+                long state = cell.add(change.getDelta());
+                cell.pending.addAndGet(change.getDelta());
+                cell.changedAt = now;
+                results[i] = new Adjusted(available(state), version(state));
+            }
+            return results;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituir las copias disponibles del libro por las de su celda, si la tiene, y adelantar su
+     * fecha de modificación a la del último ajuste en memoria para que Last-Modified no se quede atrás
+     */
+    public void overlay(Book book) {
+        Cell cell = cells.get(book.getId());
+        if (cell != null) {
+            book.setAvailableCopies(cell.available());
+            Instant changedAt = cell.changedAt;
+            if (changedAt != null && (book.getUpdatedAt() == null || changedAt.isAfter(book.getUpdatedAt()))) {
+                book.setUpdatedAt(changedAt);
+            }
+        }
+    }
+
+    /**
+     * Volcar los ajustes pendientes a la base de datos en un único lote.
+     * Si el volcado falla, el segmento y sus ajustes se conservan y se reintentan en el siguiente.
+     */
+    @Scheduled(fixedDelayString = "${book.inventory.flush-interval:200ms}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<AvailabilityChange> changes = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                cells.forEach((id, cell) -> {
+                    int pending = cell.pending.getAndSet(0);
+                    if (pending != 0) {
+                        changes.add(new AvailabilityChange(id, pending));
+                    }
+                });
+                if (!changes.isEmpty()) {
+                    unapplied.put(journal.rotate(), changes);
+                }
+            } catch (IOException e) {
+                changes.forEach(change -> cells.get(change.getBookId()).pending.addAndGet(change.getDelta()));
+                throw new UncheckedIOException("No se pudo rotar el diario de inventario", e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Iterator<Map.Entry<String, List<AvailabilityChange>>> segments = unapplied.entrySet().iterator();
+            while (segments.hasNext()) {
+                Map.Entry<String, List<AvailabilityChange>> segment = segments.next();
+                List<Long> rejected = apply(segment.getKey(), segment.getValue());
+                segments.remove();
+                // Solo ocurre si la fila se modificó por fuera de este servicio: el ajuste se descarta y la celda se relee
+                rejected.forEach(this::reload);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Los cambios hechos directamente en la base de datos (actualización completa, lote de disponibilidad,
+     * borrado) se reflejan en la celda. Solo se reciben eventos publicados dentro de una transacción:
+     * los ajustes de este mismo componente se publican sin ella y no deben recalcular nada.
+     */
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (enabled && cells.containsKey(event.getBookId())) {
+            reload(event.getBookId());
+        }
+    }
+
+    /**
+     * Último volcado al parar la aplicación
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    private Cell cell(Long id) {
+        Cell cell = cells.get(id);
+        if (cell != null) {
+            return cell;
+        }
+        // La carga se hace fuera del mapa para no retener un segmento durante la consulta
+        Book book = transactionTemplate.execute(status -> bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException("Libro no encontrado con ID: " + id)));
+        Cell loaded = new Cell(book.getTotalCopies(), book.getAvailableCopies(), versionOf(book));
+        Cell existing = cells.putIfAbsent(id, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Aplicar los ajustes de un segmento, salvo que ya conste como aplicado
+     * @return IDs de los libros cuyo ajuste rechazó la base de datos
+     */
+    private List<Long> apply(String segment, List<AvailabilityChange> changes) {
+        changes.sort(Comparator.comparing(AvailabilityChange::getBookId));
+        int[] updated = transactionTemplate.execute(status -> {
+            if (inventoryFlushRepository.existsById(segment)) {
+                return null;
+            }
+            int[] counts = bookRepository.adjustAvailableCopiesBatch(changes);
+            // Un evento por libro con el ajuste total del segmento, solo de los ajustes que se aplicaron
+            List<AvailabilityChange> applied = new ArrayList<>();
+            for (int i = 0; i < changes.size(); i++) {
+                if (counts[i] != 0 && counts[i] != 1) {
+                    // Sin el número de filas no se sabe si se aplicó: se deshace y el segmento se reintenta
+                    throw new IncorrectUpdateSemanticsDataAccessException("Resultado inesperado (" + counts[i]
+                            + ") al volcar el ajuste del libro ID " + changes.get(i).getBookId());
+                }
+                if (counts[i] == 1) {
+                    applied.add(changes.get(i));
+                }
+            }
+            inventoryFlushRepository.save(new InventoryFlush(segment, Instant.now()));
+            bookOutbox.recordAvailabilityChanges(applied);
+            return counts;
+        });
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Long id = changes.get(i).getBookId();
+            // La invalidación llega por el bus a CatalogVersion: los listados, que leen la base de datos,
+            // cambian de ETag ahora que el volcado está confirmado
+            bookCache.invalidate(id);
+            if (updated != null && updated[i] == 0) {
+                log.error("La base de datos rechazó el ajuste de {} copias del libro ID {}; se descarta",
+                        changes.get(i).getDelta(), id);
+                rejected.add(id);
+            }
+        }
+        try {
+            journal.delete(segment);
+            inventoryFlushRepository.deleteById(segment);
+        } catch (IOException e) {
+            // El registro del segmento se conserva: al recuperar se sabrá que ya está aplicado
+            log.warn("No se pudo borrar el segmento {} del diario de inventario", segment, e);
+        }
+        log.debug("Volcados {} ajustes de disponibilidad (segmento {})", changes.size(), segment);
+        return rejected;
+    }
+
+    /**
+     * Releer una celda de la base de datos: lo volcado ya está en la fila y se le suman los ajustes
+     * que aún no han llegado (pendientes y segmentos sin aplicar)
+     */
+    private void reload(Long id) {
+        flushLock.lock();
+        lock.writeLock().lock();
+        try {
+            Cell cell = cells.get(id);
+            if (cell == null) {
+                return;
+            }
+            Book book = transactionTemplate.execute(status -> bookRepository.findById(id).orElse(null));
+            if (book == null) {
+                cells.remove(id);
+                if (cell.pending.get() != 0) {
+                    log.warn("Libro ID {} eliminado con {} copias pendientes de volcar", id, cell.pending.get());
+                }
+                return;
+            }
+            int notFlushed = cell.pending.get() + unapplied.values().stream()
+                    .flatMap(List::stream)
+                    .filter(change -> change.getBookId().equals(id))
+                    .mapToInt(AvailabilityChange::getDelta)
+                    .sum();
+            cell.total = book.getTotalCopies();
+            int before = cell.available();
+            long state = cell.set(book.getAvailableCopies() + notFlushed, versionOf(book));
+            availabilityWatch.availabilityChanged(id, version(state), before, available(state));
+        } finally {
+            lock.writeLock().unlock();
+            flushLock.unlock();
+        }
+    }
+
+    private void recover(String segment) throws IOException {
+        if (inventoryFlushRepository.existsById(segment)) {
+            journal.delete(segment);
+            inventoryFlushRepository.deleteById(segment);
+            return;
+        }
+        List<AvailabilityChange> changes = new ArrayList<>();
+        journal.read(segment).forEach((id, delta) -> {
+            if (delta != 0) {
+                changes.add(new AvailabilityChange(id, delta));
+            }
+        });
+        log.warn("Recuperando {} ajustes de disponibilidad del segmento {} del diario", changes.size(), segment);
+        if (changes.isEmpty()) {
+            journal.delete(segment);
+            return;
+        }
+        apply(segment, changes);
+    }
+
+    private static long versionOf(Book book) {
+        return book.getVersion() != null ? book.getVersion() : 0;
+    }
+
+    // Estado de una celda: versión en los 32 bits altos y copias disponibles en los bajos
+    private static long pack(long version, int available) {
+        return version << 32 | (available & 0xFFFFFFFFL);
+    }
+
+    private static int available(long state) {
+        return (int) state;
+    }
+
+    private static long version(long state) {
+        return state >>> 32;
+    }
+
+    /**
+     * Copias disponibles y versión de una celda tras un ajuste
+     */
+    public record Adjusted(int available, long version) {
+    }
+
+    /**
+     * Las copias disponibles y la versión comparten un único valor atómico: cada ajuste obtiene en el
+     * mismo CAS su resultado y su posición en el orden de cambios del libro. La versión parte de la de
+     * la fila y sube con cada cambio, así que nunca queda por detrás de la de la base de datos
+     * (un volcado la sube como mucho una vez por ajuste).
+     */
+    private static final class Cell {
+        private volatile int total;
+        private final AtomicLong state;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile Instant changedAt;
+
+        private Cell(int total, int available, long version) {
+            this.total = total;
+            this.state = new AtomicLong(pack(version, available));
+        }
+
+        private int available() {
+            return InventoryCounters.available(state.get());
+        }
+
+        private long add(int delta) {
+            return state.updateAndGet(current -> pack(version(current) + 1, InventoryCounters.available(current) + delta));
+        }
+
+        private long set(int available, long minimumVersion) {
+            return state.updateAndGet(current -> pack(Math.max(version(current) + 1, minimumVersion), available));
+        }
+    }
+}
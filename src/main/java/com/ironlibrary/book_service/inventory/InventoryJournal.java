@@ -0,0 +1,138 @@
+package com.ironlibrary.book_service.inventory;
+
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Diario local de ajustes de disponibilidad, en segmentos de solo añadir ("idLibro ajuste" por línea;
+ * los ajustes de un lote todo o nada van en una sola línea, separados por comas).
+ * Cada volcado a la base de datos cierra el segmento actual y abre otro; el segmento cerrado
+ * se borra cuando sus ajustes están confirmados. Lo que quede en el directorio al arrancar
+ * son ajustes aceptados que quizá no llegaron a la base de datos.
+ * Cada línea se escribe en el fichero al aceptarse el ajuste (sobrevive a una caída del proceso);
+ * el fsync se hace al cerrar el segmento.
+ */
+class InventoryJournal {
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private FileChannel channel;
+    private String segment;
+
+    InventoryJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Segmentos que quedaron en el directorio (de una ejecución anterior), del más antiguo al más reciente
+     */
+    List<String> leftoverSegments() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Ajustes de un segmento sumados por libro
+     */
+    Map<Long, Integer> read(String segment) throws IOException {
+        Map<Long, Integer> deltas = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path(segment), StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Una última línea incompleta es una escritura interrumpida por la caída: su ajuste no se confirmó
+                if (!line.endsWith(";")) {
+                    continue;
+                }
+                for (String entry : line.substring(0, line.length() - 1).split(",")) {
+                    int separator = entry.indexOf(' ');
+                    long bookId = Long.parseLong(entry.substring(0, separator));
+                    int delta = Integer.parseInt(entry.substring(separator + 1));
+                    deltas.merge(bookId, delta, Integer::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Abrir un segmento nuevo para los ajustes que lleguen a partir de ahora
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        // Prefijo temporal para que los segmentos se ordenen por antigüedad
+        segment = String.format("%013d-%s", System.currentTimeMillis(), UUID.randomUUID().toString().substring(0, 8));
+        channel = FileChannel.open(path(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Añadir un ajuste al segmento actual. Seguro desde varios hilos mientras no se rote el segmento.
+     */
+    void append(long bookId, int delta) throws IOException {
+        write(bookId + " " + delta + ";\n");
+    }
+
+    /**
+     * Añadir varios ajustes en una sola línea: tras una caída se recuperan todos o ninguno
+     */
+    void appendAll(List<AvailabilityChange> changes) throws IOException {
+        write(changes.stream()
+                .map(change -> change.getBookId() + " " + change.getDelta())
+                .collect(Collectors.joining(",", "", ";\n")));
+    }
+
+    /**
+     * Cerrar el segmento actual (con fsync) y abrir otro
+     * @return nombre del segmento cerrado
+     */
+    String rotate() throws IOException {
+        String sealed = segment;
+        close();
+        open();
+        return sealed;
+    }
+
+    void delete(String segment) throws IOException {
+        Files.deleteIfExists(path(segment));
+    }
+
+    void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void write(String text) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+    }
+
+    private Path path(String segment) {
+        return directory.resolve(segment + SUFFIX);
+    }
+}
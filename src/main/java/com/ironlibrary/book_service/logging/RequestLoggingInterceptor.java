@@ -0,0 +1,60 @@
+package com.ironlibrary.book_service.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registra una línea por petición (método, patrón, estado y duración) con muestreo por endpoint.
+ * Los errores (excepción o estado 5xx) se registran siempre.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RequestLoggingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestLoggingInterceptor.class.getName() + ".start";
+
+    private final RequestLoggingProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // En las peticiones asíncronas se vuelve a pasar por aquí al despachar el resultado: se conserva el inicio
+        if (log.isInfoEnabled() && request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            pattern = request.getRequestURI();
+        }
+        int status = response.getStatus();
+        long durationMicros = (System.nanoTime() - (Long) start) / 1_000;
+
+        if (ex != null || status >= 500) {
+            log.warn("method={} path={} status={} durationUs={} error={}",
+                    request.getMethod(), pattern, status, durationMicros, ex != null ? ex.getClass().getSimpleName() : "-");
+        } else if (isSampled(pattern)) {
+            log.info("method={} path={} status={} durationUs={}", request.getMethod(), pattern, status, durationMicros);
+        }
+    }
+
+    boolean isSampled(String pattern) {
+        double rate = properties.sampleRateFor(pattern);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ironlibrary.book_service.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuración del log de peticiones: fracción de peticiones registradas por patrón de endpoint
+ */
+@Data
+@ConfigurationProperties(prefix = "book.logging.requests")
+public class RequestLoggingProperties {
+
+    /**
+     * Fracción (0.0 - 1.0) de peticiones registradas en los endpoints sin tasa propia
+     */
+    private double defaultSampleRate = 1.0;
+
+    /**
+     * Tasa de muestreo por patrón de endpoint, p. ej. /api/books/{id}/availability
+     */
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    public double sampleRateFor(String pattern) {
+        return sampleRates.getOrDefault(pattern, defaultSampleRate);
+    }
+}
@@ -1,15 +1,25 @@
 package com.ironlibrary.book_service.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_category_available", columnList = "category, available_copies"),
+        @Index(name = "idx_books_available", columnList = "available_copies"),
+        @Index(name = "idx_books_title", columnList = "title"),
+        @Index(name = "idx_books_author", columnList = "author")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,14 +30,17 @@ public class Book {
     private Long id;
 
     @NotBlank(message = "El título es obligatorio")
+    @Size(max = 255, message = "El título no puede superar 255 caracteres")
     @Column(nullable = false, length = 255)
     private String title;
 
     @NotBlank(message = "El autor es obligatorio")
+    @Size(max = 255, message = "El autor no puede superar 255 caracteres")
     @Column(nullable = false, length = 255)
     private String author;
 
     @NotBlank(message = "El ISBN es obligatorio")
+    @Size(max = 20, message = "El ISBN no puede superar 20 caracteres")
     @Column(unique = true, nullable = false, length = 20)
     private String isbn;
 
@@ -44,6 +57,28 @@ public class Book {
     @Column(name = "available_copies", nullable = false)
     private Integer availableCopies;
 
+    /**
+     * Versión del libro: aumenta con cada modificación (bloqueo optimista y ETag)
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    /**
+     * Fecha de la última modificación (cabecera Last-Modified)
+     */
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+
     /**
      * Verifica si el libro está disponible para préstamo
      * @return true si hay copias disponibles
@@ -52,6 +87,23 @@ public class Book {
         return availableCopies != null && availableCopies > 0;
     }
 
+    /**
+     * Copia desvinculada del libro (para cachés y eventos)
+     */
+    public Book copy() {
+        Book copy = new Book();
+        copy.setId(id);
+        copy.setTitle(title);
+        copy.setAuthor(author);
+        copy.setIsbn(isbn);
+        copy.setCategory(category);
+        copy.setTotalCopies(totalCopies);
+        copy.setAvailableCopies(availableCopies);
+        copy.setVersion(version);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
+
     /**
      * Constructor para crear un libro con copias disponibles iguales al total
      */
@@ -0,0 +1,31 @@
+package com.ironlibrary.book_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Segmento del diario de inventario ya aplicado a la base de datos.
+ * Se guarda en la misma transacción que los ajustes del segmento, de modo que al recuperar
+ * tras una caída un segmento registrado aquí no se vuelve a aplicar.
+ */
+@Entity
+@Table(name = "inventory_flushes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryFlush {
+
+    @Id
+    @Column(length = 64)
+    private String segment;
+
+    @Column(name = "flushed_at", nullable = false)
+    private Instant flushedAt;
+}
@@ -0,0 +1,67 @@
+package com.ironlibrary.book_service.model;
+
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Cambio de un libro pendiente de publicar (outbox transaccional).
+ * Se inserta en la misma transacción que el cambio, de modo que solo existe si el cambio se confirmó;
+ * el relevo lo publica después y anota publishedAt.
+ */
+@Entity
+@Table(name = "book_outbox", indexes = {
+        @Index(name = "idx_book_outbox_published_at", columnList = "published_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private BookChangedEvent.Type type;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "availability_delta", nullable = false)
+    private int availabilityDelta;
+
+    // Estado del libro tras el cambio; null en borrados y ajustes de disponibilidad
+    @Column(name = "available_copies")
+    private Integer availableCopies;
+
+    @Column(name = "total_copies")
+    private Integer totalCopies;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    public static OutboxEvent from(BookChangedEvent event, Instant createdAt) {
+        Book after = event.getAfter();
+        return new OutboxEvent(null, event.getType(), event.getBookId(), event.getAvailabilityDelta(),
+                after != null ? after.getAvailableCopies() : null,
+                after != null ? after.getTotalCopies() : null,
+                createdAt, null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ironlibrary.book_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Fila que se bloquea mientras una instancia publica un lote del outbox.
+ * Con varias instancias solo una publica a la vez, y cada lote se marca con un published_at
+ * posterior al último confirmado por cualquiera de ellas.
+ */
+@Entity
+@Table(name = "outbox_relay_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLock {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(name = "relayed_at")
+    private Instant relayedAt;
+}
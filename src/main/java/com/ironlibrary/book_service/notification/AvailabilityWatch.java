@@ -0,0 +1,180 @@
+package com.ironlibrary.book_service.notification;
+
+import com.ironlibrary.book_service.dto.AvailabilityNotification;
+import com.ironlibrary.book_service.web.SseEmitterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Suscripciones Server-Sent Events a la disponibilidad de libros concretos (/api/books/availability/stream).
+ * Solo se notifica cuando un libro pasa de no tener copias disponibles a tenerlas, o al revés.
+ * Una suscripción inactiva no ocupa ningún hilo (servlet asíncrono); el envío a los suscriptores se hace
+ * en hilos virtuales, después del commit, para no retrasar a quien modificó la disponibilidad.
+ * Cada notificación lleva la versión del libro que la produjo (la de la fila, o la de la celda con el
+ * inventario en memoria): los commits no llegan aquí en su orden, así que una notificación con versión
+ * igual o anterior a la última enviada de ese libro se descarta.
+ */
+@Component
+public class AvailabilityWatch {
+
+    public static final int MAX_BOOKS_PER_SUBSCRIPTION = 100;
+
+    private static final String EVENT_NAME = "availability";
+
+    // Suscriptores por libro y libros por suscriptor (para limpiar al desconectarse)
+    private final Map<Long, Watchers> watchers = new ConcurrentHashMap<>();
+    private final Map<SseEmitter, Set<Long>> subscriptions = new ConcurrentHashMap<>();
+    private final SseEmitterRegistry emitters;
+    private final Executor executor;
+
+    public AvailabilityWatch(@Value("${book.availability.stream-timeout:30m}") Duration timeout) {
+        this.emitters = new SseEmitterRegistry("disponibilidad", timeout, this::unsubscribe);
+        SimpleAsyncTaskExecutor fanOut = new SimpleAsyncTaskExecutor("availability-watch-");
+        fanOut.setVirtualThreads(true);
+        this.executor = fanOut;
+    }
+
+    /**
+     * Abrir una suscripción a varios libros. Tras registrarla se envía el estado actual de cada uno,
+     * de modo que un cambio que ocurra entre medias no se pierde (como mucho llega repetido).
+     * Si mientras se lee ese estado ya se ha enviado una notificación del libro, el estado leído
+     * puede ser anterior y no se envía.
+     * @param currentAvailability copias disponibles actuales de un libro
+     */
+    public SseEmitter subscribe(Set<Long> ids, Function<Long, Integer> currentAvailability) {
+        if (ids.isEmpty() || ids.size() > MAX_BOOKS_PER_SUBSCRIPTION) {
+            throw new IllegalArgumentException("Se debe seguir entre 1 y " + MAX_BOOKS_PER_SUBSCRIPTION + " libros");
+        }
+        SseEmitter emitter = emitters.open();
+        subscriptions.put(emitter, ids);
+        Map<Long, Watchers> books = new HashMap<>();
+        Map<Long, Long> deliveredAtSubscription = new HashMap<>();
+        ids.forEach(id -> watchers.compute(id, (key, current) -> {
+            Watchers book = current != null ? current : new Watchers();
+            book.emitters.add(emitter);
+            books.put(id, book);
+            deliveredAtSubscription.put(id, book.delivered);
+            return book;
+        }));
+        try {
+            for (Long id : ids) {
+                AvailabilityNotification notification = notification(id, currentAvailability.apply(id));
+                Watchers book = books.get(id);
+                book.lock.lock();
+                try {
+                    if (book.delivered == deliveredAtSubscription.get(id)) {
+                        send(emitter, notification);
+                    }
+                } finally {
+                    book.lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            emitters.remove(emitter);
+            throw e;
+        }
+        return emitter;
+    }
+
+    /**
+     * Si alguien sigue el libro (para no consultar la disponibilidad resultante en vano)
+     */
+    public boolean isWatched(Long id) {
+        return watchers.containsKey(id);
+    }
+
+    /**
+     * Notificar un cambio de disponibilidad si cruza el cero. Dentro de una transacción se envía tras el commit.
+     * @param version versión del libro tras el cambio
+     */
+    public void availabilityChanged(Long id, long version, int before, int after) {
+        if ((before > 0) == (after > 0)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(id, version, after);
+                }
+            });
+        } else {
+            fanOut(id, version, after);
+        }
+    }
+
+    /**
+     * Comentario periódico para que proxies y balanceadores no cierren las conexiones inactivas
+     */
+    @Scheduled(fixedDelayString = "${book.availability.stream-heartbeat:15s}")
+    public void heartbeat() {
+        emitters.heartbeat();
+    }
+
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    private void fanOut(Long id, long version, int after) {
+        Watchers book = watchers.get(id);
+        if (book == null) {
+            return;
+        }
+        AvailabilityNotification notification = notification(id, after);
+        executor.execute(() -> {
+            // Los envíos de un mismo libro no se solapan, y uno que llega detrás de otro posterior se descarta.
+            // ReentrantLock y no synchronized, para no fijar el hilo virtual a su portador durante la escritura
+            book.lock.lock();
+            try {
+                if (version <= book.delivered) {
+                    return;
+                }
+                book.delivered = version;
+                book.emitters.forEach(emitter -> send(emitter, notification));
+            } finally {
+                book.lock.unlock();
+            }
+        });
+    }
+
+    private static AvailabilityNotification notification(Long id, int availableCopies) {
+        return new AvailabilityNotification(id, availableCopies > 0, availableCopies);
+    }
+
+    private void send(SseEmitter emitter, AvailabilityNotification notification) {
+        emitters.send(emitter, SseEmitter.event().name(EVENT_NAME).data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        Set<Long> ids = subscriptions.remove(emitter);
+        if (ids == null) {
+            return;
+        }
+        ids.forEach(id -> watchers.computeIfPresent(id, (key, book) -> {
+            book.emitters.remove(emitter);
+            return book.emitters.isEmpty() ? null : book;
+        }));
+    }
+
+    private static final class Watchers {
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock lock = new ReentrantLock();
+        // Versión de la última notificación enviada (se escribe con lock; se lee sin él al suscribirse)
+        private volatile long delivered = -1;
+    }
+}
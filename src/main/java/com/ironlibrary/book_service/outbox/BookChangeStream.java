@@ -0,0 +1,262 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.dto.BookChangeMessage;
+import com.ironlibrary.book_service.model.OutboxEvent;
+import com.ironlibrary.book_service.repository.OutboxEventRepository;
+import com.ironlibrary.book_service.web.SseEmitterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Suscripciones Server-Sent Events a los cambios de libros (/api/books/changes/stream).
+ * Cada instancia sigue por su cuenta los eventos que el relevo (activo en una sola) marca como publicados,
+ * en el orden en que se publicaron (published_at, id) y no por id: los id se asignan al insertar,
+ * pero las transacciones confirman en otro orden, y un evento con id menor puede publicarse después.
+ * El id de cada evento SSE es esa posición; al reconectar con Last-Event-ID se reenvía todo lo publicado
+ * después. Cada suscriptor tiene su propia posición y solo recibe eventos posteriores a ella, así que
+ * no hay huecos; sí puede haber duplicados (el relevo entrega al menos una vez), que los clientes
+ * descartan por el id del mensaje.
+ */
+@Component
+public class BookChangeStream {
+
+    private static final int REPLAY_LIMIT = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final SseEmitterRegistry emitters;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // Última posición leída por esta instancia; null mientras no hay suscriptores
+    private final ReentrantLock headLock = new ReentrantLock();
+    private Position head;
+
+    public BookChangeStream(OutboxEventRepository outboxEventRepository,
+                            @Value("${book.outbox.stream-timeout:30m}") Duration timeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.emitters = new SseEmitterRegistry("cambios", timeout, subscribers::remove);
+    }
+
+    /**
+     * Abrir una suscripción
+     * @param lastEventId id del último evento recibido por el cliente, o null para recibir solo los nuevos
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Position from = lastEventId != null ? resume(lastEventId) : head();
+        // Se registra antes de reenviar: lo que se publique entre medias lo recoge la siguiente lectura
+        SseEmitter emitter = emitters.open();
+        Subscriber subscriber = new Subscriber(emitter, from);
+        subscribers.put(emitter, subscriber);
+        catchUp(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Leer lo publicado desde la última lectura y enviarlo a los suscriptores.
+     * Un suscriptor que va por detrás (acaba de reconectar) primero se pone al día desde su posición.
+     */
+    @Scheduled(fixedDelayString = "${book.outbox.stream-poll-interval:500ms}")
+    public void poll() {
+        if (subscribers.isEmpty()) {
+            headLock.lock();
+            try {
+                head = null;
+            } finally {
+                headLock.unlock();
+            }
+            return;
+        }
+        Position before = head();
+        List<OutboxEvent> events = publishedAfter(before);
+        if (!events.isEmpty()) {
+            headLock.lock();
+            try {
+                Position last = Position.of(events.get(events.size() - 1));
+                if (head == null || head.compareTo(last) < 0) {
+                    head = last;
+                }
+            } finally {
+                headLock.unlock();
+            }
+        }
+        subscribers.values().forEach(subscriber -> {
+            subscriber.lock.lock();
+            try {
+                if (subscriber.position.compareTo(before) < 0 && !catchUp(subscriber, before)) {
+                    return;
+                }
+                send(subscriber, events);
+            } finally {
+                subscriber.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Comentario periódico para que proxies y balanceadores no cierren las conexiones inactivas
+     */
+    @Scheduled(fixedDelayString = "${book.outbox.stream-heartbeat:15s}")
+    public void heartbeat() {
+        emitters.heartbeat();
+    }
+
+    public int subscribers() {
+        return emitters.size();
+    }
+
+    private void catchUp(Subscriber subscriber) {
+        subscriber.lock.lock();
+        try {
+            catchUp(subscriber, null);
+        } finally {
+            subscriber.lock.unlock();
+        }
+    }
+
+    /**
+     * Reenviar a un suscriptor una página de lo publicado desde su posición (con su bloqueo)
+     * @param target posición que debe alcanzar, o null si basta con una página
+     * @return true si la ha alcanzado
+     */
+    private boolean catchUp(Subscriber subscriber, Position target) {
+        List<OutboxEvent> missed = publishedAfter(subscriber.position);
+        if (!send(subscriber, missed)) {
+            return false;
+        }
+        return target == null || missed.size() < REPLAY_LIMIT || subscriber.position.compareTo(target) >= 0;
+    }
+
+    /**
+     * Enviar los eventos posteriores a la posición del suscriptor, avanzándola (con su bloqueo)
+     * @return false si la conexión se ha cerrado
+     */
+    private boolean send(Subscriber subscriber, List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            Position position = Position.of(event);
+            if (position.compareTo(subscriber.position) <= 0) {
+                continue;
+            }
+            BookChangeMessage message = BookChangeMessage.from(event);
+            boolean sent = emitters.send(subscriber.emitter, SseEmitter.event()
+                    .id(position.toEventId())
+                    .name(message.getType().name())
+                    .data(message, MediaType.APPLICATION_JSON));
+            if (!sent) {
+                return false;
+            }
+            subscriber.position = position;
+        }
+        return true;
+    }
+
+    private List<OutboxEvent> publishedAfter(Position position) {
+        // Desde la principal: una réplica retrasada podría no tener aún lo publicado antes de esta posición
+        return ReplicaRouting.onPrimary(() -> outboxEventRepository.findPublishedAfter(
+                position.publishedAt(), position.id(), Limit.of(REPLAY_LIMIT)));
+    }
+
+    /**
+     * Posición del último evento publicado que ha leído esta instancia (la del último publicado si aún no leyó nada)
+     */
+    private Position head() {
+        headLock.lock();
+        try {
+            if (head == null) {
+                head = ReplicaRouting.onPrimary(() -> outboxEventRepository
+                        .findFirstByPublishedAtIsNotNullOrderByPublishedAtDescIdDesc())
+                        .map(Position::of)
+                        .orElse(Position.START);
+            }
+            return head;
+        } finally {
+            headLock.unlock();
+        }
+    }
+
+    /**
+     * Posición de un Last-Event-ID. Los id anteriores a este formato son el id del outbox:
+     * se reanuda desde ese evento si sigue en la tabla y, si no, desde el principio
+     * (el cliente recibe duplicados en lugar de perder eventos).
+     */
+    private Position resume(String lastEventId) {
+        Position position = Position.parse(lastEventId);
+        if (position != null) {
+            return position;
+        }
+        try {
+            long id = Long.parseLong(lastEventId.trim());
+            return ReplicaRouting.onPrimary(() -> outboxEventRepository.findById(id))
+                    .filter(event -> event.getPublishedAt() != null)
+                    .map(Position::of)
+                    .orElse(Position.START);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Last-Event-ID no válido: " + lastEventId);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Último evento enviado (con lock)
+        private Position position;
+
+        private Subscriber(SseEmitter emitter, Position position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Posición de un evento en el orden de publicación. En el id SSE va como "microsegundos-id".
+     */
+    record Position(Instant publishedAt, long id) implements Comparable<Position> {
+
+        static final Position START = new Position(Instant.EPOCH, 0);
+
+        private static final Comparator<Position> ORDER = Comparator.comparing(Position::publishedAt)
+                .thenComparingLong(Position::id);
+
+        static Position of(OutboxEvent event) {
+            return new Position(event.getPublishedAt(), event.getId());
+        }
+
+        /**
+         * @return la posición, o null si el id no tiene este formato
+         */
+        static Position parse(String eventId) {
+            int separator = eventId.indexOf('-');
+            if (separator <= 0) {
+                return null;
+            }
+            try {
+                long micros = Long.parseLong(eventId.substring(0, separator));
+                long id = Long.parseLong(eventId.substring(separator + 1));
+                return new Position(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Last-Event-ID no válido: " + eventId);
+            }
+        }
+
+        String toEventId() {
+            long micros = publishedAt.getEpochSecond() * 1_000_000 + publishedAt.getNano() / 1_000;
+            return micros + "-" + id;
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.OutboxEvent;
+import com.ironlibrary.book_service.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escribe en el outbox los cambios de libros, dentro de la transacción que los produce.
+ * Los eventos de una transacción se acumulan y se insertan en un único lote JDBC justo antes del commit:
+ * si la transacción se deshace, no queda ningún evento.
+ * Los ajustes del inventario en memoria se publican sin transacción y aquí se ignoran;
+ * {@link com.ironlibrary.book_service.inventory.InventoryCounters} los registra al volcarlos.
+ */
+@Component
+public class BookOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final boolean enabled;
+
+    public BookOutbox(OutboxEventRepository outboxEventRepository,
+                      @Value("${book.outbox.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (enabled && inTransaction()) {
+            pending().add(OutboxEvent.from(event, Instant.now()));
+        }
+    }
+
+    /**
+     * Registrar ajustes de disponibilidad aplicados en la transacción actual
+     */
+    public void recordAvailabilityChanges(List<AvailabilityChange> changes) {
+        if (!enabled) {
+            return;
+        }
+        if (!inTransaction()) {
+            throw new IllegalStateException("Los ajustes solo se registran en el outbox dentro de una transacción");
+        }
+        Instant now = Instant.now();
+        List<OutboxEvent> events = pending();
+        changes.forEach(change -> events.add(OutboxEvent.from(
+                BookChangedEvent.availabilityChanged(change.getBookId(), change.getDelta()), now)));
+    }
+
+    private static boolean inTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    /**
+     * Eventos pendientes de la transacción actual. Se desvinculan al suspenderla (REQUIRES_NEW)
+     * para que los de la transacción interna no se mezclen con los de la externa.
+     */
+    @SuppressWarnings("unchecked")
+    private List<OutboxEvent> pending() {
+        List<OutboxEvent> events = (List<OutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events != null) {
+            return events;
+        }
+        List<OutboxEvent> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(BookOutbox.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(BookOutbox.this, created);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!created.isEmpty()) {
+                    outboxEventRepository.insertBatch(created);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BookOutbox.this);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.ironlibrary.book_service.dto.BookChangeMessage;
+
+import java.util.List;
+
+/**
+ * Destino de los cambios que publica {@link OutboxRelay} (broker de mensajes, fichero...).
+ * Sin ninguno registrado se usa {@link InMemoryChangeEventSink}.
+ * Cada lote lo recibe solo la instancia que lo publica; las suscripciones SSE no son un sink,
+ * sino que {@link BookChangeStream} sigue lo publicado en cada instancia.
+ * Recibe los eventos en lotes ordenados por ID. Si lanza una excepción el lote se reintenta
+ * en el siguiente relevo, por lo que un mismo evento puede llegar más de una vez.
+ */
+public interface ChangeEventSink {
+
+    void publish(List<BookChangeMessage> messages);
+}
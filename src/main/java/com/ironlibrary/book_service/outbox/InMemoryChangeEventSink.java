@@ -0,0 +1,38 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.ironlibrary.book_service.dto.BookChangeMessage;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Sink que guarda en memoria los últimos cambios recibidos. Sink por defecto y sustituto para tests:
+ * se descarta en cuanto se registra otro {@link ChangeEventSink}.
+ */
+public class InMemoryChangeEventSink implements ChangeEventSink {
+
+    private final int capacity;
+    private final Deque<BookChangeMessage> messages = new ArrayDeque<>();
+
+    /**
+     * @param capacity número de cambios que se conservan; los más antiguos se descartan
+     */
+    public InMemoryChangeEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<BookChangeMessage> batch) {
+        for (BookChangeMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    public synchronized List<BookChangeMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ironlibrary.book_service.dto.BookChangeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink que añade cada cambio como una línea JSON a un fichero (book.outbox.file-sink.path).
+ * Solo se registra si se configura la ruta.
+ */
+@Component
+@ConditionalOnProperty("book.outbox.file-sink.path")
+public class NdjsonFileChangeEventSink implements ChangeEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public NdjsonFileChangeEventSink(ObjectMapper objectMapper, @Value("${book.outbox.file-sink.path}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<BookChangeMessage> messages) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (BookChangeMessage message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron escribir los cambios en " + path, e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.ironlibrary.book_service.dto.BookChangeMessage;
+import com.ironlibrary.book_service.model.OutboxEvent;
+import com.ironlibrary.book_service.model.OutboxRelayLock;
+import com.ironlibrary.book_service.repository.OutboxEventRepository;
+import com.ironlibrary.book_service.repository.OutboxRelayLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Relevo del outbox: publica en lotes los eventos pendientes en todos los {@link ChangeEventSink}
+ * y después los marca como publicados. Entrega al menos una vez: si un sink falla, o la aplicación
+ * se detiene entre la publicación y la marca, el lote se vuelve a publicar.
+ * Puede estar activo en todas las instancias: cada lote se publica y se marca en una transacción que
+ * bloquea {@link OutboxRelayLock}, así que solo una instancia publica a la vez (las demás se saltan
+ * el turno). Dentro del bloqueo, cada lote se marca con un published_at estrictamente mayor que el
+ * último confirmado, y ese es el orden en que {@link BookChangeStream} sigue lo publicado.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    static final String LOCK_NAME = "outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayLockRepository outboxRelayLockRepository;
+    private final List<ChangeEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxRelayLockRepository outboxRelayLockRepository,
+                       List<ChangeEventSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${book.outbox.enabled:true}") boolean outboxEnabled,
+                       @Value("${book.outbox.relay.enabled:true}") boolean relayEnabled,
+                       @Value("${book.outbox.batch-size:500}") int batchSize,
+                       @Value("${book.outbox.retention:1h}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxRelayLockRepository = outboxRelayLockRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = outboxEnabled && relayEnabled;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Publicar los eventos pendientes, lote a lote, hasta vaciar el outbox
+     */
+    @Scheduled(fixedDelayString = "${book.outbox.relay-interval:500ms}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Boolean more;
+            do {
+                more = transactionTemplate.execute(status -> relayBatch());
+            } while (Boolean.TRUE.equals(more));
+        } catch (PessimisticLockingFailureException e) {
+            log.debug("Otra instancia está publicando el outbox: {}", e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            // Dos instancias crearon la fila del bloqueo a la vez; en el siguiente relevo ya existe
+            log.debug("Bloqueo del relevo creado por otra instancia: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publicar y marcar un lote con el bloqueo del relevo (la transacción va a la principal)
+     * @return true si puede quedar otro lote
+     */
+    private boolean relayBatch() {
+        OutboxRelayLock lock = outboxRelayLockRepository.findLockedByName(LOCK_NAME)
+                .orElseGet(() -> outboxRelayLockRepository.saveAndFlush(new OutboxRelayLock(LOCK_NAME, null)));
+        List<OutboxEvent> batch = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+        List<BookChangeMessage> messages = batch.stream().map(BookChangeMessage::from).toList();
+        for (ChangeEventSink sink : sinks) {
+            sink.publish(messages);
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        Instant publishedAt = nextPublishedAt();
+        outboxEventRepository.markPublished(ids, publishedAt);
+        lock.setRelayedAt(publishedAt);
+        log.debug("Publicados {} eventos del outbox (hasta el ID {})", ids.size(), ids.get(ids.size() - 1));
+        return batch.size() == batchSize;
+    }
+
+    /**
+     * Instante con el que marcar el siguiente lote: el actual, o uno posterior al último lote confirmado
+     * (por esta o por otra instancia) si el reloj no ha avanzado, ha retrocedido o va por detrás del de
+     * otra instancia. En microsegundos, la precisión de la columna.
+     */
+    private Instant nextPublishedAt() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        return outboxEventRepository.findFirstByPublishedAtIsNotNullOrderByPublishedAtDescIdDesc()
+                .map(OutboxEvent::getPublishedAt)
+                .filter(last -> !now.isAfter(last))
+                .map(last -> last.plus(1, ChronoUnit.MICROS))
+                .orElse(now);
+    }
+
+    /**
+     * Borrar los eventos publicados más antiguos que el periodo de retención
+     * (hasta entonces sirven para reanudar suscripciones)
+     */
+    @Scheduled(fixedDelayString = "${book.outbox.purge-interval:10m}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(Instant.now().minus(retention)));
+        log.debug("Eliminados {} eventos publicados del outbox", deleted);
+    }
+}
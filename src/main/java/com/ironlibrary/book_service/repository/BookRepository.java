@@ -1,20 +1,28 @@
 package com.ironlibrary.book_service.repository;
 
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.CategoryStats;
 import com.ironlibrary.book_service.model.Book;
 import com.ironlibrary.book_service.model.Category;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repositorio para operaciones CRUD de Book
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
 
     /**
      * Buscar libro por ISBN
@@ -53,8 +61,84 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     @Query("SELECT COUNT(b) FROM Book b WHERE b.category = :category")
     Long countByCategory(@Param("category") Category category);
 
+    /**
+     * Títulos, copias totales y copias disponibles por categoría
+     */
+    @Query("SELECT new com.ironlibrary.book_service.dto.CategoryStats(b.category, COUNT(b), SUM(b.totalCopies), SUM(b.availableCopies)) " +
+            "FROM Book b GROUP BY b.category")
+    List<CategoryStats> aggregateByCategory();
+
     /**
      * Verificar si existe un libro con el ISBN dado
      */
     boolean existsByIsbn(String isbn);
+
+    /**
+     * ISBN de la lista que ya existen en el catálogo (deduplicación por lotes en la importación)
+     */
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Buscar libros por una lista de ISBN
+     */
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    /**
+     * Listado reducido de libros disponibles (proyección, sin entidades gestionadas)
+     */
+    @Query("SELECT new com.ironlibrary.book_service.dto.BookSummary(b.id, b.title, b.author, b.category, b.availableCopies) " +
+            "FROM Book b WHERE b.availableCopies > 0")
+    List<BookSummary> findAvailableSummaries();
+
+    /**
+     * Listado reducido de libros de una categoría
+     */
+    @Query("SELECT new com.ironlibrary.book_service.dto.BookSummary(b.id, b.title, b.author, b.category, b.availableCopies) " +
+            "FROM Book b WHERE b.category = :category")
+    List<BookSummary> findSummariesByCategory(@Param("category") Category category);
+
+    /**
+     * Listado reducido de los libros con los IDs dados
+     */
+    @Query("SELECT new com.ironlibrary.book_service.dto.BookSummary(b.id, b.title, b.author, b.category, b.availableCopies) " +
+            "FROM Book b WHERE b.id IN :ids")
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Listado reducido de libros por título (búsqueda insensible a mayúsculas)
+     */
+    @Query("SELECT new com.ironlibrary.book_service.dto.BookSummary(b.id, b.title, b.author, b.category, b.availableCopies) " +
+            "FROM Book b WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    List<BookSummary> findSummariesByTitleContaining(@Param("title") String title);
+
+    /**
+     * Listado reducido de libros por autor (búsqueda insensible a mayúsculas)
+     */
+    @Query("SELECT new com.ironlibrary.book_service.dto.BookSummary(b.id, b.title, b.author, b.category, b.availableCopies) " +
+            "FROM Book b WHERE LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%'))")
+    List<BookSummary> findSummariesByAuthorContaining(@Param("author") String author);
+
+    /**
+     * Página por clave (keyset): libros con ID mayor que el cursor, ordenados por ID
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Ajustar las copias disponibles de forma atómica en una sola sentencia.
+     * Solo se aplica si el resultado queda entre 0 y el total de copias.
+     * @return número de filas actualizadas (0 si el libro no existe o el ajuste no es válido)
+     */
+    default int adjustAvailableCopies(Long id, int delta) {
+        return adjustAvailableCopies(id, delta, Instant.now());
+    }
+
+    /**
+     * Ajustar las copias disponibles, aumentando la versión y registrando la fecha de modificación
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + :delta, " +
+            "b.version = b.version + 1, b.updatedAt = :updatedAt " +
+            "WHERE b.id = :id AND b.availableCopies + :delta BETWEEN 0 AND b.totalCopies")
+    int adjustAvailableCopies(@Param("id") Long id, @Param("delta") int delta, @Param("updatedAt") Instant updatedAt);
 }
@@ -0,0 +1,34 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.model.Book;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Operaciones del repositorio de libros implementadas con JDBC
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Ajustar las copias disponibles de varios libros en un único lote JDBC.
+     * Cada ajuste usa el mismo UPDATE condicional que {@link BookRepository#adjustAvailableCopies}.
+     * @return filas actualizadas por cada ajuste, en el mismo orden recibido
+     */
+    int[] adjustAvailableCopiesBatch(List<AvailabilityChange> changes);
+
+    /**
+     * Insertar libros nuevos en un único lote JDBC (Hibernate no agrupa inserts con IDENTITY).
+     * No asigna los IDs generados a los objetos recibidos.
+     */
+    void insertBatch(List<Book> books);
+
+    /**
+     * Recorrer todo el catálogo ordenado por ID con un cursor de solo avance.
+     * Cada libro se desvincula del contexto de persistencia tras procesarse,
+     * por lo que la memoria usada no depende del tamaño de la tabla.
+     * Debe invocarse dentro de una transacción.
+     */
+    void forEachBook(Consumer<Book> action);
+}
@@ -0,0 +1,76 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.model.Book;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Implementación JDBC/JPA de {@link BookRepositoryCustom}
+ */
+@RequiredArgsConstructor
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final String ADJUST_AVAILABLE_COPIES_SQL =
+            "UPDATE books SET available_copies = available_copies + ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND available_copies + ? BETWEEN 0 AND total_copies";
+
+    private static final String INSERT_BOOK_SQL =
+            "INSERT INTO books (title, author, isbn, category, total_copies, available_copies, version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Override
+    public int[] adjustAvailableCopiesBatch(List<AvailabilityChange> changes) {
+        Timestamp updatedAt = Timestamp.from(Instant.now());
+        int[][] counts = jdbcTemplate.batchUpdate(ADJUST_AVAILABLE_COPIES_SQL, changes, Math.max(changes.size(), 1),
+                (ps, change) -> {
+                    ps.setInt(1, change.getDelta());
+                    ps.setTimestamp(2, updatedAt);
+                    ps.setLong(3, change.getBookId());
+                    ps.setInt(4, change.getDelta());
+                });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+
+    @Override
+    public void insertBatch(List<Book> books) {
+        Timestamp updatedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_BOOK_SQL, books, Math.max(books.size(), 1),
+                (ps, book) -> {
+                    ps.setString(1, book.getTitle());
+                    ps.setString(2, book.getAuthor());
+                    ps.setString(3, book.getIsbn());
+                    ps.setString(4, book.getCategory().name());
+                    ps.setInt(5, book.getTotalCopies());
+                    ps.setInt(6, book.getAvailableCopies());
+                    ps.setTimestamp(7, updatedAt);
+                });
+    }
+
+    @Override
+    public void forEachBook(Consumer<Book> action) {
+        try (Stream<Book> books = entityManager.createQuery("SELECT b FROM Book b ORDER BY b.id", Book.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            books.forEach(book -> {
+                action.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtros de la búsqueda combinada de libros como Specification de JPA.
+ * Categoría, disponibilidad y prefijo de ISBN usan los índices de la tabla books;
+ * título y autor se buscan como subcadena sin distinguir mayúsculas.
+ */
+public final class BookSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Combinar con AND todos los filtros informados en los criterios
+     */
+    public static Specification<Book> matching(BookSearchCriteria criteria) {
+        List<Specification<Book>> filters = new ArrayList<>();
+        if (criteria.getCategory() != null) {
+            filters.add(hasCategory(criteria.getCategory()));
+        }
+        if (criteria.getAvailable() != null) {
+            filters.add(isAvailable(criteria.getAvailable()));
+        }
+        if (hasText(criteria.getTitle())) {
+            filters.add(titleContains(criteria.getTitle()));
+        }
+        if (hasText(criteria.getAuthor())) {
+            filters.add(authorContains(criteria.getAuthor()));
+        }
+        if (hasText(criteria.getIsbn())) {
+            filters.add(isbnStartsWith(criteria.getIsbn()));
+        }
+        return Specification.allOf(filters);
+    }
+
+    public static Specification<Book> hasCategory(Category category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Book> isAvailable(boolean available) {
+        return (root, query, cb) -> available
+                ? cb.greaterThan(root.get("availableCopies"), 0)
+                : cb.equal(root.get("availableCopies"), 0);
+    }
+
+    public static Specification<Book> titleContains(String title) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), "%" + escapeLike(title.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> authorContains(String author) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("author")), "%" + escapeLike(author.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> isbnStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("isbn"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,12 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.model.InventoryFlush;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de los segmentos del diario de inventario ya aplicados
+ */
+@Repository
+public interface InventoryFlushRepository extends JpaRepository<InventoryFlush, String> {
+}
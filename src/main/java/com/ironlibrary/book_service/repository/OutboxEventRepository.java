@@ -0,0 +1,46 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio del outbox de cambios de libros
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+
+    /**
+     * Eventos aún no publicados, del más antiguo al más reciente
+     */
+    List<OutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+    /**
+     * Eventos ya publicados después de una posición (published_at, id), en orden de publicación
+     * (para seguir lo publicado y reanudar suscripciones)
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt > :publishedAt "
+            + "OR (e.publishedAt = :publishedAt AND e.id > :id) ORDER BY e.publishedAt, e.id")
+    List<OutboxEvent> findPublishedAfter(@Param("publishedAt") Instant publishedAt, @Param("id") long id, Limit limit);
+
+    /**
+     * Último evento publicado
+     */
+    Optional<OutboxEvent> findFirstByPublishedAtIsNotNullOrderByPublishedAtDescIdDesc();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
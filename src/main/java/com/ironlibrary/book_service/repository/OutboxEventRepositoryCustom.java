@@ -0,0 +1,16 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Operaciones del repositorio del outbox implementadas con JDBC
+ */
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Insertar eventos en un único lote JDBC (Hibernate no agrupa inserts con IDENTITY)
+     */
+    void insertBatch(List<OutboxEvent> events);
+}
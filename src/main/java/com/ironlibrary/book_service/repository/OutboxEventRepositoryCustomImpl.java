@@ -0,0 +1,35 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link OutboxEventRepositoryCustom}
+ */
+@RequiredArgsConstructor
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO book_outbox (event_type, book_id, availability_delta, available_copies, total_copies, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertBatch(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, Math.max(events.size(), 1),
+                (ps, event) -> {
+                    ps.setString(1, event.getType().name());
+                    ps.setLong(2, event.getBookId());
+                    ps.setInt(3, event.getAvailabilityDelta());
+                    ps.setObject(4, event.getAvailableCopies(), Types.INTEGER);
+                    ps.setObject(5, event.getTotalCopies(), Types.INTEGER);
+                    ps.setTimestamp(6, Timestamp.from(event.getCreatedAt()));
+                });
+    }
+}
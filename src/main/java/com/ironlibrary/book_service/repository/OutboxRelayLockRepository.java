@@ -0,0 +1,25 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.model.OutboxRelayLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio del bloqueo del relevo del outbox
+ */
+@Repository
+public interface OutboxRelayLockRepository extends JpaRepository<OutboxRelayLock, String> {
+
+    /**
+     * Bloquear la fila sin esperar: si otra instancia la tiene, falla con PessimisticLockingFailureException
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    Optional<OutboxRelayLock> findLockedByName(String name);
+}
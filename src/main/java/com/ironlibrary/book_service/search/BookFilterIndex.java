@@ -0,0 +1,320 @@
+package com.ironlibrary.book_service.search;
+
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice de filtros en memoria por categoría y disponibilidad.
+ * Cada libro recibe un ordinal compacto; hay un BitSet por categoría y otro con los libros disponibles,
+ * de modo que "categoría y disponible" se resuelve con un AND de bits y solo se cargan de la base de datos
+ * los libros que coinciden. Se mantiene al día con los BookChangedEvent confirmados.
+ * Los ordinales de libros eliminados no se reutilizan hasta la siguiente reconstrucción.
+ * <p>
+ * Los eventos solo llegan de esta instancia, así que periódicamente se compara con la base de datos
+ * y se corrige lo que otras instancias (o cambios hechos fuera del servicio) hayan modificado.
+ * Mientras una reconstrucción o reconciliación recorre la tabla, los libros que reciben eventos no se
+ * sobrescriben con lo leído (pudo leerse antes del cambio): se vuelven a leer al terminar el recorrido.
+ */
+@Component
+@Slf4j
+public class BookFilterIndex {
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersion catalogVersion;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock passLock = new ReentrantLock();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet[] byCategory = new BitSet[CATEGORIES.length];
+    private long[] idByOrdinal = new long[INITIAL_CAPACITY];
+    private int[] availableCopiesByOrdinal = new int[INITIAL_CAPACITY];
+    private int nextOrdinal;
+    private volatile boolean ready;
+    /**
+     * Libros con eventos durante el recorrido en curso; null si no hay ninguno (protegido por lock)
+     */
+    private Set<Long> touched;
+
+    public BookFilterIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                           CatalogVersion catalogVersion) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.catalogVersion = catalogVersion;
+        for (int i = 0; i < byCategory.length; i++) {
+            byCategory[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Reconstruir el índice completo a partir del catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Construyendo índice de filtros por categoría y disponibilidad");
+        passLock.lock();
+        try {
+            ready = false;
+            lock.writeLock().lock();
+            try {
+                ordinalById.clear();
+                live.clear();
+                available.clear();
+                Arrays.stream(byCategory).forEach(BitSet::clear);
+                idByOrdinal = new long[INITIAL_CAPACITY];
+                availableCopiesByOrdinal = new int[INITIAL_CAPACITY];
+                nextOrdinal = 0;
+                touched = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            synchronize();
+            ready = true;
+        } finally {
+            passLock.unlock();
+        }
+        log.info("Índice de filtros construido: {} libros", live.cardinality());
+    }
+
+    /**
+     * Comparar con la base de datos y corregir los libros que no coinciden
+     */
+    @Scheduled(fixedDelayString = "${book.search.filter-reconcile-interval:5m}",
+            initialDelayString = "${book.search.filter-reconcile-interval:5m}")
+    public void reconcile() {
+        if (!ready || !passLock.tryLock()) {
+            return;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                touched = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            int corrected = synchronize();
+            if (corrected > 0) {
+                log.warn("Índice de filtros corregido: {} libros no coincidían con la base de datos", corrected);
+                catalogVersion.changed();
+            }
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    /**
+     * Mantener el índice sincronizado con los cambios confirmados
+     */
+    @Order(CatalogVersion.INDEX_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (touched != null) {
+                touched.add(event.getBookId());
+            }
+            switch (event.getType()) {
+                case CREATED, UPDATED -> put(event.getAfter());
+                case DELETED -> remove(event.getBookId());
+                case AVAILABILITY_CHANGED -> adjustAvailableCopies(event.getBookId(), event.getAvailabilityDelta());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Añadir o actualizar un libro
+     */
+    public void put(Book book) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(book.getId());
+            if (ordinal == null) {
+                ordinal = nextOrdinal++;
+                ensureCapacity(nextOrdinal);
+                ordinalById.put(book.getId(), ordinal);
+                idByOrdinal[ordinal] = book.getId();
+            }
+            live.set(ordinal);
+            for (BitSet bits : byCategory) {
+                bits.clear(ordinal);
+            }
+            byCategory[book.getCategory().ordinal()].set(ordinal);
+            availableCopiesByOrdinal[ordinal] = book.getAvailableCopies();
+            available.set(ordinal, book.getAvailableCopies() > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Eliminar un libro del índice
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            live.clear(ordinal);
+            available.clear(ordinal);
+            for (BitSet bits : byCategory) {
+                bits.clear(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplicar un ajuste de copias disponibles; solo cambia un bit si el libro pasa de 0 a más copias o al revés
+     */
+    public void adjustAvailableCopies(Long id, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(id);
+            if (ordinal == null) {
+                return;
+            }
+            int copies = availableCopiesByOrdinal[ordinal] + delta;
+            availableCopiesByOrdinal[ordinal] = copies;
+            available.set(ordinal, copies > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los libros que cumplen los filtros, ordenados de menor a mayor
+     * @param category categoría, o null para todas
+     * @param availableOnly true solo disponibles, false solo agotados, null ambos
+     */
+    public List<Long> find(Category category, Boolean availableOnly) {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) (category == null ? live : byCategory[category.ordinal()]).clone();
+            if (Boolean.TRUE.equals(availableOnly)) {
+                matches.and(available);
+            } else if (Boolean.FALSE.equals(availableOnly)) {
+                matches.andNot(available);
+            }
+            ids = new long[matches.cardinality()];
+            int i = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                ids[i++] = idByOrdinal[ordinal];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(ids);
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    /**
+     * Recorrer la tabla y dejar el índice como ella, salvo los libros con eventos durante el recorrido,
+     * que se vuelven a leer al final en otra transacción (la del recorrido ve una foto anterior)
+     * @return libros corregidos
+     */
+    private int synchronize() {
+        Set<Long> seen = new HashSet<>();
+        int[] corrected = new int[1];
+        Consumer<Book> compare = book -> {
+            seen.add(book.getId());
+            lock.writeLock().lock();
+            try {
+                if (!touched.contains(book.getId()) && !isIndexed(book)) {
+                    put(book);
+                    corrected[0]++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        transactionTemplate.executeWithoutResult(status ->
+                ReplicaRouting.onPrimary(() -> bookRepository.forEachBook(compare)));
+        Set<Long> reread;
+        lock.writeLock().lock();
+        try {
+            for (Long id : List.copyOf(ordinalById.keySet())) {
+                if (!seen.contains(id) && !touched.contains(id)) {
+                    remove(id);
+                    corrected[0]++;
+                }
+            }
+            reread = touched;
+            touched = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!reread.isEmpty()) {
+            Map<Long, Book> current = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> ReplicaRouting.onPrimary(() ->
+                    bookRepository.findAllById(reread).forEach(book -> current.put(book.getId(), book))));
+            for (Long id : reread) {
+                Book book = current.get(id);
+                if (book == null) {
+                    remove(id);
+                } else {
+                    put(book);
+                }
+            }
+        }
+        return corrected[0];
+    }
+
+    /**
+     * Si el índice ya tiene el libro con su categoría y sus copias disponibles
+     */
+    private boolean isIndexed(Book book) {
+        Integer ordinal = ordinalById.get(book.getId());
+        return ordinal != null
+                && byCategory[book.getCategory().ordinal()].get(ordinal)
+                && availableCopiesByOrdinal[ordinal] == book.getAvailableCopies();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > idByOrdinal.length) {
+            int newLength = Math.max(capacity, idByOrdinal.length * 2);
+            idByOrdinal = Arrays.copyOf(idByOrdinal, newLength);
+            availableCopiesByOrdinal = Arrays.copyOf(availableCopiesByOrdinal, newLength);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.ironlibrary.book_service.search;
+
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre las palabras normalizadas del título y el autor.
+ * Se construye al arrancar a partir de BookRepository y se mantiene al día con los
+ * BookChangedEvent confirmados. Mientras no está listo, BookService consulta la base de datos.
+ */
+@Component
+@Slf4j
+public class BookSearchIndex {
+
+    /**
+     * Campos indexados
+     */
+    public enum Field {
+        TITLE,
+        AUTHOR
+    }
+
+    private static final int EXACT_MATCH_SCORE = 2;
+    private static final int PREFIX_MATCH_SCORE = 1;
+
+    private final BookRepository bookRepository;
+    private final int maxResults;
+    private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository,
+                           @Value("${book.search.max-results:500}") int maxResults) {
+        this.bookRepository = bookRepository;
+        this.maxResults = maxResults;
+        for (Field field : Field.values()) {
+            fields.put(field, new FieldIndex());
+        }
+    }
+
+    /**
+     * Reconstruir el índice completo a partir del catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("Construyendo índice de búsqueda de libros");
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(FieldIndex::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ReplicaRouting.onPrimary(() -> bookRepository.forEachBook(this::index));
+        ready = true;
+        log.info("Índice de búsqueda construido: {} libros", fields.get(Field.TITLE).size());
+    }
+
+    /**
+     * Mantener el índice sincronizado con los cambios confirmados
+     */
+    @Order(CatalogVersion.INDEX_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> index(event.getAfter());
+            case DELETED -> remove(event.getBookId());
+            default -> {
+                // Los cambios de disponibilidad no afectan a título ni autor
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexar (o reindexar) un libro
+     */
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            fields.get(Field.TITLE).put(book.getId(), book.getTitle());
+            fields.get(Field.AUTHOR).put(book.getId(), book.getAuthor());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Eliminar un libro del índice
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            fields.values().forEach(index -> index.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Buscar libros cuyo campo contenga todas las palabras de la consulta.
+     * Cada palabra coincide de forma exacta o como prefijo (la última puede estar a medio escribir).
+     * @return IDs ordenados por relevancia: más coincidencias exactas, campo más corto, menor ID
+     */
+    public List<Long> search(Field field, String query) {
+        String[] queryTokens = TextNormalizer.tokenize(query);
+        if (queryTokens.length == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            FieldIndex index = fields.get(field);
+            Map<Long, Integer> scores = null;
+            for (String token : queryTokens) {
+                Map<Long, Integer> tokenScores = index.match(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Comparator<Map.Entry<Long, Integer>> ranking = Map.Entry.<Long, Integer>comparingByValue().reversed();
+            ranking = ranking
+                    .thenComparingInt(entry -> index.length(entry.getKey()))
+                    .thenComparing(Map.Entry.comparingByKey());
+            return scores.entrySet().stream()
+                    .sorted(ranking)
+                    .limit(maxResults)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Índice invertido de un campo: palabra -> IDs, y las palabras de cada libro para poder borrarlo
+     */
+    private static final class FieldIndex {
+
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<Long, String[]> tokensById = new HashMap<>();
+
+        void put(Long id, String text) {
+            remove(id);
+            String[] tokens = TextNormalizer.tokenize(text);
+            tokensById.put(id, tokens);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(Long id) {
+            String[] tokens = tokensById.remove(id);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Set<Long> ids = postings.get(token);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+
+        Map<Long, Integer> match(String token) {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> entry
+                    : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+                int score = entry.getKey().equals(token) ? EXACT_MATCH_SCORE : PREFIX_MATCH_SCORE;
+                for (Long id : entry.getValue()) {
+                    scores.merge(id, score, Math::max);
+                }
+            }
+            return scores;
+        }
+
+        int length(Long id) {
+            String[] tokens = tokensById.get(id);
+            return tokens == null ? 0 : tokens.length;
+        }
+
+        int size() {
+            return tokensById.size();
+        }
+
+        void clear() {
+            postings.clear();
+            tokensById.clear();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.ironlibrary.book_service.search;
+
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice de autocompletado por prefijo sobre títulos y autores.
+ *
+ * Los textos normalizados se guardan concatenados en un único char[] y se ordenan las posiciones
+ * donde empieza cada palabra (un array de sufijos por inicio de palabra). Una consulta es una búsqueda
+ * binaria más la lectura de las k primeras coincidencias, sin depender del tamaño del catálogo.
+ *
+ * Ese segmento es inmutable: los libros cambiados después de construirlo se marcan como pendientes,
+ * se excluyen del segmento y se buscan aparte. Cuando hay demasiados pendientes se reconstruye
+ * el segmento en segundo plano.
+ */
+@Component
+@Slf4j
+public class BookSuggestionIndex {
+
+    private static final char END_OF_TEXT = '\0';
+
+    private final BookRepository bookRepository;
+    private final Executor compactionExecutor;
+    private final int compactionThreshold;
+
+    private final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile Segment segment = Segment.build(List.of());
+
+    public BookSuggestionIndex(BookRepository bookRepository,
+                               @Qualifier("applicationTaskExecutor") Executor compactionExecutor,
+                               @Value("${book.suggest.compaction-threshold:1000}") int compactionThreshold) {
+        this.bookRepository = bookRepository;
+        this.compactionExecutor = compactionExecutor;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Construir el índice a partir del catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("Construyendo índice de sugerencias");
+        ReplicaRouting.onPrimary(() -> bookRepository.forEachBook(book -> docs.put(book.getId(), Doc.of(book))));
+        compact();
+        log.info("Índice de sugerencias construido: {} libros", docs.size());
+    }
+
+    /**
+     * Aplicar los cambios confirmados de libros
+     */
+    @Order(CatalogVersion.INDEX_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> put(event.getAfter());
+            case DELETED -> remove(event.getBookId());
+            default -> {
+                // Los cambios de disponibilidad no afectan a título ni autor
+            }
+        }
+    }
+
+    /**
+     * Añadir o actualizar un libro
+     */
+    public void put(Book book) {
+        docs.put(book.getId(), Doc.of(book));
+        markPending(book.getId());
+    }
+
+    /**
+     * Eliminar un libro
+     */
+    public void remove(Long id) {
+        docs.remove(id);
+        markPending(id);
+    }
+
+    /**
+     * Sugerencias cuyo título o autor contiene una palabra que empieza por la consulta.
+     * Se devuelven en orden alfabético del texto coincidente, sin repetir libro ni autor.
+     */
+    public List<BookSuggestion> suggest(String query, int limit) {
+        String prefix = String.join(" ", TextNormalizer.tokenize(query));
+        if (prefix.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        segment.collect(prefix, limit, pending.keySet(), matches);
+        collectPending(prefix, matches);
+        matches.sort(Comparator.comparing(Match::key).thenComparing(Match::bookId));
+
+        List<BookSuggestion> suggestions = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        for (Match match : matches) {
+            String dedupKey = match.field() == BookSuggestion.Field.AUTHOR
+                    ? "A:" + match.text()
+                    : "T:" + match.bookId();
+            if (seen.add(dedupKey)) {
+                suggestions.add(new BookSuggestion(match.bookId(), match.text(), match.field()));
+                if (suggestions.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Reconstruir el segmento con el estado actual y descartar los pendientes ya incluidos
+     */
+    void compact() {
+        long upTo = sequence.get();
+        Segment rebuilt = Segment.build(List.copyOf(docs.values()));
+        segment = rebuilt;
+        pending.values().removeIf(changedAt -> changedAt <= upTo);
+    }
+
+    private void markPending(Long id) {
+        pending.put(id, sequence.incrementAndGet());
+        if (pending.size() >= compactionThreshold && compacting.compareAndSet(false, true)) {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    private void collectPending(String prefix, List<Match> matches) {
+        for (Long id : pending.keySet()) {
+            Doc doc = docs.get(id);
+            if (doc == null) {
+                continue;
+            }
+            doc.collect(BookSuggestion.Field.TITLE, doc.title(), prefix, matches);
+            doc.collect(BookSuggestion.Field.AUTHOR, doc.author(), prefix, matches);
+        }
+    }
+
+    private record Match(String key, long bookId, String text, BookSuggestion.Field field) {
+    }
+
+    private record Doc(long id, String title, String author) {
+
+        static Doc of(Book book) {
+            return new Doc(book.getId(), book.getTitle(), book.getAuthor());
+        }
+
+        void collect(BookSuggestion.Field field, String text, String prefix, List<Match> matches) {
+            String normalized = String.join(" ", TextNormalizer.tokenize(text));
+            for (int i = 0; i < normalized.length(); i++) {
+                if ((i == 0 || normalized.charAt(i - 1) == ' ') && normalized.startsWith(prefix, i)) {
+                    matches.add(new Match(normalized.substring(i), id, text, field));
+                }
+            }
+        }
+    }
+
+    /**
+     * Segmento inmutable: textos normalizados concatenados y posiciones de inicio de palabra ordenadas
+     */
+    private static final class Segment {
+
+        private final char[] text;
+        private final int[] starts;
+        private final int[] owners;
+        private final long[] bookIds;
+        private final String[] texts;
+        private final BookSuggestion.Field[] fields;
+
+        private Segment(char[] text, int[] starts, int[] owners,
+                        long[] bookIds, String[] texts, BookSuggestion.Field[] fields) {
+            this.text = text;
+            this.starts = starts;
+            this.owners = owners;
+            this.bookIds = bookIds;
+            this.texts = texts;
+            this.fields = fields;
+        }
+
+        static Segment build(Collection<Doc> docs) {
+            StringBuilder buffer = new StringBuilder();
+            int entryCount = docs.size() * 2;
+            long[] bookIds = new long[entryCount];
+            String[] texts = new String[entryCount];
+            BookSuggestion.Field[] fields = new BookSuggestion.Field[entryCount];
+            List<int[]> positions = new ArrayList<>();
+
+            int entry = 0;
+            for (Doc doc : docs) {
+                for (BookSuggestion.Field field : BookSuggestion.Field.values()) {
+                    String original = field == BookSuggestion.Field.TITLE ? doc.title() : doc.author();
+                    String normalized = String.join(" ", TextNormalizer.tokenize(original));
+                    bookIds[entry] = doc.id();
+                    texts[entry] = original;
+                    fields[entry] = field;
+                    int base = buffer.length();
+                    buffer.append(normalized).append(END_OF_TEXT);
+                    for (int i = 0; i < normalized.length(); i++) {
+                        if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                            positions.add(new int[]{base + i, entry});
+                        }
+                    }
+                    entry++;
+                }
+            }
+
+            char[] text = buffer.toString().toCharArray();
+            positions.sort((a, b) -> compareSuffixes(text, a[0], b[0]));
+            int[] starts = new int[positions.size()];
+            int[] owners = new int[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                starts[i] = positions.get(i)[0];
+                owners[i] = positions.get(i)[1];
+            }
+            return new Segment(text, starts, owners, bookIds, texts, fields);
+        }
+
+        /**
+         * Añadir hasta limit coincidencias del prefijo, saltando los libros pendientes
+         */
+        void collect(String prefix, int limit, Set<Long> excluded, List<Match> matches) {
+            Set<String> seen = new HashSet<>();
+            for (int i = lowerBound(prefix); i < starts.length && startsWith(starts[i], prefix); i++) {
+                int owner = owners[i];
+                if (excluded.contains(bookIds[owner])) {
+                    continue;
+                }
+                String dedupKey = fields[owner] == BookSuggestion.Field.AUTHOR ? "A:" + texts[owner] : "T:" + bookIds[owner];
+                if (seen.add(dedupKey)) {
+                    matches.add(new Match(suffix(starts[i]), bookIds[owner], texts[owner], fields[owner]));
+                    if (seen.size() == limit) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareWithPrefix(starts[mid], prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int compareWithPrefix(int start, String prefix) {
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = text[start + i];
+                if (c == END_OF_TEXT) {
+                    return -1;
+                }
+                if (c != prefix.charAt(i)) {
+                    return c < prefix.charAt(i) ? -1 : 1;
+                }
+            }
+            return 0;
+        }
+
+        private boolean startsWith(int start, String prefix) {
+            return compareWithPrefix(start, prefix) == 0;
+        }
+
+        private String suffix(int start) {
+            int end = start;
+            while (text[end] != END_OF_TEXT) {
+                end++;
+            }
+            return new String(text, start, end - start);
+        }
+
+        private static int compareSuffixes(char[] text, int a, int b) {
+            while (true) {
+                char ca = text[a++];
+                char cb = text[b++];
+                if (ca != cb) {
+                    return Character.compare(ca, cb);
+                }
+                if (ca == END_OF_TEXT) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
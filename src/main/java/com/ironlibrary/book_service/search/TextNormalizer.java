@@ -0,0 +1,40 @@
+package com.ironlibrary.book_service.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para los índices de búsqueda:
+ * minúsculas, sin tildes ni diacríticos y separado en palabras.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Texto en minúsculas y sin diacríticos ("García Márquez" -> "garcia marquez")
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Palabras normalizadas del texto, sin repetir
+     */
+    public static String[] tokenize(String text) {
+        return Arrays.stream(SEPARATORS.split(normalize(text)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+}
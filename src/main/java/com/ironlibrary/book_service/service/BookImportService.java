@@ -0,0 +1,183 @@
+package com.ironlibrary.book_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ironlibrary.book_service.dto.BookImportError;
+import com.ironlibrary.book_service.dto.BookImportReport;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.importer.BookImportFormat;
+import com.ironlibrary.book_service.importer.BookRow;
+import com.ironlibrary.book_service.importer.BookRowReader;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.repository.BookRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de libros desde CSV o NDJSON.
+ * Lee el fichero en streaming, valida cada fila con las restricciones de {@link Book},
+ * descarta ISBN repetidos (en el propio fichero y en la base de datos) e inserta por lotes JDBC,
+ * con una transacción por lote.
+ */
+@Service
+@Slf4j
+public class BookImportService {
+
+    private final BookRepository bookRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public BookImportService(BookRepository bookRepository,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${book.import.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importar libros. Las filas válidas se insertan aunque otras se rechacen;
+     * el informe indica la línea y el motivo de cada fila rechazada.
+     */
+    public BookImportReport importBooks(InputStream input, BookImportFormat format) throws IOException {
+        log.info("Iniciando importación masiva de libros en formato {}", format);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        BookRowReader rows = format.open(reader, objectMapper);
+
+        ImportRun run = new ImportRun();
+        List<BookRow> chunk = new ArrayList<>(chunkSize);
+        BookRow row;
+        while ((row = rows.next()) != null) {
+            run.received++;
+            String error = row.isValid() ? validate(row.book()) : row.error();
+            if (error != null) {
+                run.reject(row, error);
+                continue;
+            }
+            Long firstLine = run.seenIsbns.putIfAbsent(row.book().getIsbn(), row.line());
+            if (firstLine != null) {
+                run.reject(row, "ISBN duplicado en la importación (ya aparece en la línea " + firstLine + ")");
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, run);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, run);
+        }
+
+        run.errors.sort(Comparator.comparingLong(BookImportError::getLine));
+        log.info("Importación terminada: {} filas recibidas, {} importadas, {} rechazadas",
+                run.received, run.imported, run.errors.size());
+        return new BookImportReport(run.received, run.imported, run.errors.size(), run.errors);
+    }
+
+    private String validate(Book book) {
+        if (book.getIsbn() != null) {
+            book.setIsbn(book.getIsbn().trim());
+        }
+        if (book.getAvailableCopies() == null) {
+            book.setAvailableCopies(book.getTotalCopies());
+        }
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (book.getAvailableCopies() > book.getTotalCopies()) {
+            return "Las copias disponibles no pueden superar el total de copias";
+        }
+        return null;
+    }
+
+    /**
+     * Insertar un lote. Si otra petición inserta a la vez un ISBN del lote, se reintenta una vez
+     * (la segunda comprobación contra la base de datos ya lo descarta).
+     */
+    private void insertChunk(List<BookRow> chunk, ImportRun run) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> insertNewBooks(chunk));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Conflicto de ISBN al insertar un lote de {} libros, reintentando", chunk.size());
+            try {
+                result = transactionTemplate.execute(status -> insertNewBooks(chunk));
+            } catch (DataIntegrityViolationException retryFailure) {
+                chunk.forEach(row -> run.reject(row, "No se pudo insertar el lote por un conflicto de ISBN concurrente"));
+                return;
+            }
+        }
+        result.existing().forEach(row -> run.reject(row, "Ya existe un libro con el ISBN: " + row.book().getIsbn()));
+        run.imported += result.inserted();
+    }
+
+    private ChunkResult insertNewBooks(List<BookRow> chunk) {
+        Set<String> existingIsbns = bookRepository.findExistingIsbns(
+                chunk.stream().map(row -> row.book().getIsbn()).toList());
+
+        List<BookRow> existing = new ArrayList<>();
+        List<Book> books = new ArrayList<>(chunk.size());
+        for (BookRow row : chunk) {
+            if (existingIsbns.contains(row.book().getIsbn())) {
+                existing.add(row);
+            } else {
+                books.add(row.book());
+            }
+        }
+        if (!books.isEmpty()) {
+            bookRepository.insertBatch(books);
+            // Releer para obtener los IDs generados y notificar a índices y cachés tras el commit
+            bookRepository.findByIsbnIn(books.stream().map(Book::getIsbn).toList())
+                    .forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        }
+        return new ChunkResult(books.size(), existing);
+    }
+
+    private record ChunkResult(int inserted, List<BookRow> existing) {
+    }
+
+    private static class ImportRun {
+        private final Map<String, Long> seenIsbns = new HashMap<>();
+        private final List<BookImportError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        void reject(BookRow row, String message) {
+            String isbn = row.book() != null ? row.book().getIsbn() : null;
+            errors.add(new BookImportError(row.line(), isbn, message));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ironlibrary.book_service.service;
+
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.PageResponse;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Lecturas no bloqueantes del catálogo para /api/async/books.
+ * Lo que ya está en memoria (libro en caché) se resuelve en el acto; el resto se delega en
+ * {@link BookService} sobre el ejecutor de lecturas, y quien llama recibe un CompletableFuture
+ * sin ocupar su hilo mientras la consulta espera a la base de datos.
+ * Los listados van a la principal cuando CatalogETagInterceptor lo pide para la petición: la consulta
+ * corre en otro hilo, que hereda esa decisión del hilo de la petición.
+ */
+@Service
+public class BookReadService {
+
+    private final BookService bookService;
+    private final Executor executor;
+
+    /**
+     * Cada consulta a la base de datos corre en su propio hilo virtual; la concurrencia real hacia MySQL
+     * la sigue limitando el pool. No se registra como bean para no sustituir el ejecutor de Spring Boot.
+     */
+    @Autowired
+    public BookReadService(BookService bookService) {
+        this(bookService, readExecutor());
+    }
+
+    BookReadService(BookService bookService, Executor executor) {
+        this.bookService = bookService;
+        this.executor = executor;
+    }
+
+    private static Executor readExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("book-read-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Buscar libro por ID
+     */
+    public CompletableFuture<Book> findBookById(Long id) {
+        Book cached = bookService.findCachedBookById(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return CompletableFuture.supplyAsync(() -> bookService.findBookById(id), executor);
+    }
+
+    /**
+     * Verificar si un libro está disponible para préstamo
+     */
+    public CompletableFuture<Boolean> isBookAvailable(Long id) {
+        return findBookById(id).thenApply(Book::isAvailable);
+    }
+
+    /**
+     * Buscar libros por categoría y, opcionalmente, disponibilidad
+     */
+    public CompletableFuture<List<BookSummary>> findByCategory(Category category, Boolean available) {
+        return CompletableFuture.supplyAsync(
+                ReplicaRouting.inheriting(() -> bookService.findByCategory(category, available)), executor);
+    }
+
+    /**
+     * Buscar libros por autor
+     */
+    public CompletableFuture<List<BookSummary>> findByAuthor(String author) {
+        return CompletableFuture.supplyAsync(
+                ReplicaRouting.inheriting(() -> bookService.findByAuthor(author)), executor);
+    }
+
+    /**
+     * Buscar libros por título
+     */
+    public CompletableFuture<List<BookSummary>> findByTitle(String title) {
+        return CompletableFuture.supplyAsync(
+                ReplicaRouting.inheriting(() -> bookService.findByTitle(title)), executor);
+    }
+
+    /**
+     * Búsqueda combinada con filtros opcionales, paginación y ordenación
+     */
+    public CompletableFuture<PageResponse<BookSummary>> searchBooks(BookSearchCriteria criteria, Pageable pageable) {
+        return CompletableFuture.supplyAsync(
+                ReplicaRouting.inheriting(() -> bookService.searchBooks(criteria, pageable)), executor);
+    }
+}
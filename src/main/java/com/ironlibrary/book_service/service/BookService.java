@@ -1,45 +1,161 @@
 package com.ironlibrary.book_service.service;
 
+import com.ironlibrary.book_service.cache.BookCache;
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.dto.AvailabilityBatchResponse;
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.dto.AvailabilityChangeResult;
+import com.ironlibrary.book_service.dto.BookCacheStats;
+import com.ironlibrary.book_service.dto.BookPage;
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.CatalogStats;
+import com.ironlibrary.book_service.dto.PageResponse;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.exception.AvailabilityBatchException;
+import com.ironlibrary.book_service.exception.BookConflictException;
 import com.ironlibrary.book_service.exception.BookNotFoundException;
 import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.inventory.InventoryCounters;
 import com.ironlibrary.book_service.model.Book;
 import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
 import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.repository.BookSpecifications;
+import com.ironlibrary.book_service.search.BookFilterIndex;
+import com.ironlibrary.book_service.search.BookSearchIndex;
+import com.ironlibrary.book_service.search.BookSuggestionIndex;
+import com.ironlibrary.book_service.stats.BookStatsAggregator;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
- * Servicio para la lógica de negocio de libros
+ * Servicio para la lógica de negocio de libros.
+ * Cada método público registra su latencia en book.service y sus fallos en book.service.errors,
+ * etiquetados por método y tipo de excepción.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed("book.service")
+@Counted(value = "book.service.errors", recordFailuresOnly = true)
 public class BookService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_SUGGESTIONS = 50;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+    private static final int MAX_AVAILABILITY_ATTEMPTS = 5;
+    private static final long AVAILABILITY_RETRY_BASE_DELAY_MILLIS = 2;
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "title", "author", "category", "totalCopies", "availableCopies");
+
     private final BookRepository bookRepository;
+    private final BookCache bookCache;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookSuggestionIndex bookSuggestionIndex;
+    private final BookFilterIndex bookFilterIndex;
+    private final BookStatsAggregator bookStatsAggregator;
+    private final InventoryCounters inventoryCounters;
+    private final AvailabilityWatch availabilityWatch;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Obtener todos los libros
      */
     @Transactional(readOnly = true)
     public List<Book> findAllBooks() {
-        log.info("Obteniendo todos los libros");
+        log.debug("Obteniendo todos los libros");
         return bookRepository.findAll();
     }
 
     /**
-     * Buscar libro por ID
+     * Obtener una página de libros paginada por cursor (keyset sobre el ID)
+     */
+    @Transactional(readOnly = true)
+    public BookPage findBooksPage(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        log.debug("Obteniendo página de libros después del ID: {} (límite {})", after, limit);
+
+        // Se pide un libro más para saber si existe una página siguiente
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(limit + 1));
+        if (books.size() <= limit) {
+            return new BookPage(books, null);
+        }
+        List<Book> page = new ArrayList<>(books.subList(0, limit));
+        return new BookPage(page, page.get(limit - 1).getId());
+    }
+
+    /**
+     * Recorrer todos los libros en orden de ID sin cargar el catálogo completo en memoria
      */
     @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> action) {
+        log.debug("Recorriendo el catálogo completo en modo streaming");
+        bookRepository.forEachBook(action);
+    }
+
+    /**
+     * Buscar libro por ID
+     * Se sirve desde la caché; solo en caso de fallo se consulta la base de datos.
+     * Sin transacción propia para que un acierto no reserve una conexión.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Book findBookById(Long id) {
-        log.info("Buscando libro con ID: {}", id);
-        return bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Libro no encontrado con ID: " + id));
+        log.debug("Buscando libro con ID: {}", id);
+        // La caché se llena desde la principal: tras invalidar un libro, la réplica aún puede tener el valor anterior
+        Book book = bookCache.get(id, key -> ReplicaRouting.onPrimary(() -> loadBook(key)));
+        if (inventoryCounters.isEnabled()) {
+            inventoryCounters.overlay(book);
+        }
+        return book;
+    }
+
+    /**
+     * Buscar libro por ID solo en la caché, sin consultar la base de datos
+     * @return el libro, o null si no está en caché
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Book findCachedBookById(Long id) {
+        Book book = bookCache.getIfPresent(id);
+        if (book != null && inventoryCounters.isEnabled()) {
+            inventoryCounters.overlay(book);
+        }
+        return book;
     }
 
     /**
@@ -59,6 +175,7 @@ public class BookService {
         }
 
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook));
         log.info("Libro guardado exitosamente con ID: {}", savedBook.getId());
         return savedBook;
     }
@@ -66,9 +183,36 @@ public class BookService {
     /**
      * Actualizar libro existente
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Book updateBook(Long id, Book bookUpdate) {
+        return updateBook(id, bookUpdate, null);
+    }
+
+    /**
+     * Actualizar libro existente solo si sigue en la versión que leyó el cliente.
+     * Si otra operación lo modifica antes del commit, @Version hace fallar la escritura:
+     * en ambos casos se responde 409 y el cliente debe volver a leer el libro.
+     * Con el inventario en memoria activado, los ajustes pendientes se vuelcan antes, en su propia
+     * transacción: si la actualización falla después, lo volcado no se pierde con ella.
+     * @param expectedVersion versión esperada, o null para no comprobarla
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Book updateBook(Long id, Book bookUpdate, Long expectedVersion) {
         log.info("Actualizando libro con ID: {}", id);
-        Book existingBook = findBookById(id);
+        if (inventoryCounters.isEnabled()) {
+            // Las copias disponibles se escriben en absoluto: antes deben estar volcados los ajustes en memoria
+            inventoryCounters.flush();
+        }
+        return transactionTemplate.execute(status -> applyUpdate(id, bookUpdate, expectedVersion));
+    }
+
+    private Book applyUpdate(Long id, Book bookUpdate, Long expectedVersion) {
+        Book existingBook = loadBook(id);
+        if (expectedVersion != null && !expectedVersion.equals(existingBook.getVersion())) {
+            throw new BookConflictException("El libro con ID " + id + " ha sido modificado (versión actual "
+                    + existingBook.getVersion() + ", esperada " + expectedVersion + ")");
+        }
+        Book before = existingBook.copy();
 
         // Verificar si el nuevo ISBN ya existe en otro libro
         if (!existingBook.getIsbn().equals(bookUpdate.getIsbn()) &&
@@ -83,7 +227,14 @@ public class BookService {
         existingBook.setTotalCopies(bookUpdate.getTotalCopies());
         existingBook.setAvailableCopies(bookUpdate.getAvailableCopies());
 
-        Book updatedBook = bookRepository.save(existingBook);
+        // Con flush para que la versión ya sea la nueva al avisar a los suscriptores de disponibilidad
+        Book updatedBook = bookRepository.saveAndFlush(existingBook);
+        bookCache.invalidate(id);
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, updatedBook));
+        if (before.getAvailableCopies() != null && updatedBook.getAvailableCopies() != null) {
+            availabilityWatch.availabilityChanged(id, updatedBook.getVersion(),
+                    before.getAvailableCopies(), updatedBook.getAvailableCopies());
+        }
         log.info("Libro actualizado exitosamente");
         return updatedBook;
     }
@@ -93,75 +244,367 @@ public class BookService {
      */
     public void deleteBook(Long id) {
         log.info("Eliminando libro con ID: {}", id);
-        Book book = findBookById(id);
+        Book book = loadBook(id);
         bookRepository.delete(book);
+        bookCache.invalidate(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book));
         log.info("Libro eliminado exitosamente");
     }
 
     /**
      * Actualizar disponibilidad de copias (para préstamos/devoluciones)
+     * El ajuste se hace con un UPDATE condicional, sin leer la entidad antes.
+     * Solo si no se actualiza ninguna fila se consulta el libro para explicar el motivo;
+     * si el ajuste era válido es que otra operación cambió el libro entre medias y se reintenta
+     * en una transacción nueva (la anterior vería la misma foto del libro), con espera aleatoria creciente
+     * y un máximo de intentos. Si el hilo se interrumpe durante la espera no se reintenta más.
+     * Con el inventario en memoria activado, el ajuste se aplica en {@link InventoryCounters}.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateAvailability(Long id, int copies) {
-        log.info("Actualizando disponibilidad del libro ID: {} con {} copias", id, copies);
-        Book book = findBookById(id);
-        int newAvailable = book.getAvailableCopies() + copies;
+        log.debug("Actualizando disponibilidad del libro ID: {} con {} copias", id, copies);
 
-        if (newAvailable < 0) {
-            throw new InsufficientCopiesException("No hay suficientes copias disponibles. Disponibles: "
-                    + book.getAvailableCopies() + ", Solicitadas: " + Math.abs(copies));
+        if (inventoryCounters.isEnabled()) {
+            InventoryCounters.Adjusted adjusted = inventoryCounters.adjust(id, copies);
+            eventPublisher.publishEvent(BookChangedEvent.availabilityChanged(id, copies));
+            availabilityWatch.availabilityChanged(id, adjusted.version(), adjusted.available() - copies,
+                    adjusted.available());
+            return;
         }
 
-        if (newAvailable > book.getTotalCopies()) {
-            throw new IllegalArgumentException("Las copias disponibles no pueden exceder el total de copias");
+        int attempt = 1;
+        while (!Boolean.TRUE.equals(transactionTemplate.execute(status -> tryAdjustAvailability(id, copies)))) {
+            if (attempt == MAX_AVAILABILITY_ATTEMPTS || !backoff(attempt)) {
+                throw new BookConflictException("No se pudo actualizar la disponibilidad del libro ID: " + id
+                        + " tras " + attempt + " intentos por modificaciones concurrentes");
+            }
+            attempt++;
+            log.debug("Reintentando ajuste de disponibilidad del libro ID: {} (intento {})", id, attempt);
+        }
+
+        log.debug("Disponibilidad actualizada para el libro ID: {} ({} copias)", id, copies);
+    }
+
+    private boolean tryAdjustAvailability(Long id, int copies) {
+        if (bookRepository.adjustAvailableCopies(id, copies) == 0) {
+            Book book = loadBook(id);
+            int newAvailable = book.getAvailableCopies() + copies;
+
+            if (newAvailable < 0) {
+                throw new InsufficientCopiesException("No hay suficientes copias disponibles. Disponibles: "
+                        + book.getAvailableCopies() + ", Solicitadas: " + Math.abs(copies));
+            }
+
+            if (newAvailable > book.getTotalCopies()) {
+                throw new IllegalArgumentException("Las copias disponibles no pueden exceder el total de copias");
+            }
+
+            // Otra operación modificó el libro entre el UPDATE y la lectura
+            return false;
+        }
+        bookCache.invalidate(id);
+        eventPublisher.publishEvent(BookChangedEvent.availabilityChanged(id, copies));
+        notifyAvailability(id, copies);
+        return true;
+    }
+
+    /**
+     * Avisar a los suscriptores del libro si el ajuste lo agotó o lo volvió a dejar disponible.
+     * Solo se consulta el resultado (copias y versión de la fila, ya con el ajuste) si hay alguien siguiendo el libro.
+     */
+    private void notifyAvailability(Long id, int delta) {
+        if (availabilityWatch.isWatched(id)) {
+            bookRepository.findById(id).ifPresent(book -> availabilityWatch.availabilityChanged(id, book.getVersion(),
+                    book.getAvailableCopies() - delta, book.getAvailableCopies()));
         }
+    }
 
-        book.setAvailableCopies(newAvailable);
-        bookRepository.save(book);
-        log.info("Disponibilidad actualizada. Nuevas copias disponibles: {}", newAvailable);
+    /**
+     * Espera aleatoria entre 0 y base * 2^intento, para que los reintentos concurrentes no coincidan
+     * @return false si el hilo se ha interrumpido
+     */
+    private static boolean backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong((AVAILABILITY_RETRY_BASE_DELAY_MILLIS << attempt) + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Actualizar la disponibilidad de varios libros en una sola transacción.
+     * Los ajustes se envían en un único lote JDBC ordenado por ID de libro (orden de bloqueo estable).
+     * Si algún ajuste no es válido se lanza AvailabilityBatchException y no se aplica ninguno.
+     * Con el inventario en memoria activado, el lote se aplica en {@link InventoryCounters} (también todo o nada):
+     * escribir directamente en la base de datos comprobaría los límites contra un valor sin los ajustes pendientes.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AvailabilityBatchResponse updateAvailabilityBatch(List<AvailabilityChange> changes) {
+        log.debug("Actualizando disponibilidad en lote de {} ajustes", changes.size());
+
+        List<AvailabilityChange> ordered = changes.stream()
+                .sorted(Comparator.comparing(AvailabilityChange::getBookId))
+                .toList();
+        if (inventoryCounters.isEnabled()) {
+            return applyBatchInMemory(changes, ordered);
+        }
+        return transactionTemplate.execute(status -> applyBatch(changes, ordered));
+    }
+
+    private AvailabilityBatchResponse applyBatch(List<AvailabilityChange> changes, List<AvailabilityChange> ordered) {
+        int[] updated = bookRepository.adjustAvailableCopiesBatch(ordered);
+
+        Set<AvailabilityChange> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < ordered.size(); i++) {
+            if (updated[i] == 0) {
+                rejected.add(ordered.get(i));
+            } else if (updated[i] != 1) {
+                // Sin el número de filas (p. ej. Statement.SUCCESS_NO_INFO) no se sabe si el ajuste se aplicó
+                throw new IncorrectUpdateSemanticsDataAccessException("Resultado inesperado (" + updated[i]
+                        + ") al ajustar la disponibilidad del libro ID " + ordered.get(i).getBookId());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            throw rejectBatch(changes, rejected);
+        }
+
+        changes.forEach(change -> {
+            bookCache.invalidate(change.getBookId());
+            eventPublisher.publishEvent(BookChangedEvent.availabilityChanged(change.getBookId(), change.getDelta()));
+        });
+        changes.stream()
+                .filter(change -> availabilityWatch.isWatched(change.getBookId()))
+                .collect(Collectors.groupingBy(AvailabilityChange::getBookId,
+                        Collectors.summingInt(AvailabilityChange::getDelta)))
+                .forEach(this::notifyAvailability);
+        log.debug("Lote de disponibilidad aplicado: {} ajustes", changes.size());
+        return acceptBatch(changes);
+    }
+
+    /**
+     * Lote sobre el inventario en memoria. Como los ajustes sueltos, sus eventos se publican sin transacción:
+     * el outbox los registra al volcarlos.
+     */
+    private AvailabilityBatchResponse applyBatchInMemory(List<AvailabilityChange> changes,
+                                                         List<AvailabilityChange> ordered) {
+        InventoryCounters.Adjusted[] adjusted = inventoryCounters.adjustAll(ordered);
+
+        Set<AvailabilityChange> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Long, Integer> before = new HashMap<>();
+        Map<Long, InventoryCounters.Adjusted> after = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            AvailabilityChange change = ordered.get(i);
+            if (adjusted[i] == null) {
+                rejected.add(change);
+            } else {
+                before.putIfAbsent(change.getBookId(), adjusted[i].available() - change.getDelta());
+                after.put(change.getBookId(), adjusted[i]);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            throw rejectBatch(changes, rejected);
+        }
+
+        changes.forEach(change -> eventPublisher.publishEvent(
+                BookChangedEvent.availabilityChanged(change.getBookId(), change.getDelta())));
+        after.forEach((id, state) -> availabilityWatch.availabilityChanged(id, state.version(), before.get(id),
+                state.available()));
+        log.debug("Lote de disponibilidad aplicado en memoria: {} ajustes", changes.size());
+        return acceptBatch(changes);
+    }
+
+    private static AvailabilityBatchResponse acceptBatch(List<AvailabilityChange> changes) {
+        List<AvailabilityChangeResult> results = changes.stream()
+                .map(change -> new AvailabilityChangeResult(change.getBookId(), change.getDelta(),
+                        AvailabilityChangeResult.Status.OK, null))
+                .toList();
+        return new AvailabilityBatchResponse(true, results);
+    }
+
+    private AvailabilityBatchException rejectBatch(List<AvailabilityChange> changes, Set<AvailabilityChange> rejected) {
+        Map<Long, Book> books = bookRepository.findAllById(rejected.stream().map(AvailabilityChange::getBookId).toList())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        if (inventoryCounters.isEnabled()) {
+            books.values().forEach(inventoryCounters::overlay);
+        }
+        List<AvailabilityChangeResult> results = changes.stream()
+                .map(change -> rejected.contains(change)
+                        ? rejectedResult(change, books.get(change.getBookId()))
+                        : new AvailabilityChangeResult(change.getBookId(), change.getDelta(),
+                                AvailabilityChangeResult.Status.OK, null))
+                .toList();
+        return new AvailabilityBatchException("No se pudo aplicar el lote de disponibilidad: "
+                + rejected.size() + " ajustes rechazados", results);
+    }
+
+    private AvailabilityChangeResult rejectedResult(AvailabilityChange change, Book book) {
+        if (book == null) {
+            return new AvailabilityChangeResult(change.getBookId(), change.getDelta(),
+                    AvailabilityChangeResult.Status.BOOK_NOT_FOUND,
+                    "Libro no encontrado con ID: " + change.getBookId());
+        }
+        if (book.getAvailableCopies() + change.getDelta() > book.getTotalCopies()) {
+            return new AvailabilityChangeResult(change.getBookId(), change.getDelta(),
+                    AvailabilityChangeResult.Status.EXCEEDS_TOTAL_COPIES,
+                    "Las copias disponibles no pueden exceder el total de copias");
+        }
+        return new AvailabilityChangeResult(change.getBookId(), change.getDelta(),
+                AvailabilityChangeResult.Status.INSUFFICIENT_COPIES,
+                "No hay suficientes copias disponibles. Disponibles: " + book.getAvailableCopies()
+                        + ", Solicitadas: " + Math.abs(change.getDelta()));
     }
 
     /**
      * Buscar libros por categoría
      */
     @Transactional(readOnly = true)
-    public List<Book> findByCategory(Category category) {
-        log.info("Buscando libros por categoría: {}", category);
-        return bookRepository.findByCategory(category);
+    public List<BookSummary> findByCategory(Category category) {
+        return findByCategory(category, null);
+    }
+
+    /**
+     * Buscar libros por categoría y, opcionalmente, disponibilidad (true disponibles, false agotados).
+     * Usa el índice de filtros (AND de bitsets) y solo carga los libros que coinciden;
+     * si aún no está listo, consulta la base de datos.
+     */
+    @Transactional(readOnly = true)
+    public List<BookSummary> findByCategory(Category category, Boolean available) {
+        log.debug("Buscando libros por categoría: {} (disponibles: {})", category, available);
+        if (bookFilterIndex.isReady()) {
+            return findSummariesInOrder(bookFilterIndex.find(category, available));
+        }
+        if (available == null) {
+            return bookRepository.findSummariesByCategory(category);
+        }
+        return bookRepository.findAll(BookSpecifications.matching(
+                        new BookSearchCriteria(category, available, null, null, null)), Sort.by("id")).stream()
+                .map(BookSummary::from)
+                .toList();
     }
 
     /**
      * Obtener libros disponibles
      */
     @Transactional(readOnly = true)
-    public List<Book> findAvailableBooks() {
-        log.info("Obteniendo libros disponibles");
-        return bookRepository.findAvailableBooks();
+    public List<BookSummary> findAvailableBooks() {
+        log.debug("Obteniendo libros disponibles");
+        if (bookFilterIndex.isReady()) {
+            return findSummariesInOrder(bookFilterIndex.find(null, true));
+        }
+        return bookRepository.findAvailableSummaries();
     }
 
     /**
      * Buscar libros por autor
+     * Usa el índice de búsqueda (resultados por relevancia) y, si aún no está listo, la base de datos.
      */
     @Transactional(readOnly = true)
-    public List<Book> findByAuthor(String author) {
-        log.info("Buscando libros por autor: {}", author);
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+    public List<BookSummary> findByAuthor(String author) {
+        log.debug("Buscando libros por autor: {}", author);
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findSummariesByAuthorContaining(author);
+        }
+        return findSummariesInOrder(bookSearchIndex.search(BookSearchIndex.Field.AUTHOR, author));
     }
 
     /**
      * Buscar libros por título
+     * Usa el índice de búsqueda (resultados por relevancia) y, si aún no está listo, la base de datos.
      */
     @Transactional(readOnly = true)
-    public List<Book> findByTitle(String title) {
-        log.info("Buscando libros por título: {}", title);
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+    public List<BookSummary> findByTitle(String title) {
+        log.debug("Buscando libros por título: {}", title);
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findSummariesByTitleContaining(title);
+        }
+        return findSummariesInOrder(bookSearchIndex.search(BookSearchIndex.Field.TITLE, title));
     }
 
     /**
-     * Verificar si un libro está disponible para préstamo
+     * Búsqueda combinada con filtros opcionales, paginación y ordenación.
+     * Se añade el ID como último criterio de orden para que las páginas sean estables.
      */
     @Transactional(readOnly = true)
+    public PageResponse<BookSummary> searchBooks(BookSearchCriteria criteria, Pageable pageable) {
+        if (pageable.getPageSize() > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe ser como máximo " + MAX_SEARCH_PAGE_SIZE);
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("No se puede ordenar por: " + order.getProperty());
+            }
+        }
+        log.debug("Búsqueda combinada de libros: {}", criteria);
+
+        Sort sort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort()
+                : pageable.getSort().and(Sort.by("id"));
+        Page<Book> books = bookRepository.findAll(BookSpecifications.matching(criteria),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+        return PageResponse.from(books.map(BookSummary::from));
+    }
+
+    /**
+     * Sugerencias de autocompletado por prefijo de título o autor (sin acceder a la base de datos)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BookSuggestion> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("El límite de sugerencias debe estar entre 1 y " + MAX_SUGGESTIONS);
+        }
+        return bookSuggestionIndex.suggest(query, limit);
+    }
+
+    /**
+     * Verificar si un libro está disponible para préstamo
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean isBookAvailable(Long id) {
         Book book = findBookById(id);
         return book.isAvailable();
     }
+
+    /**
+     * Estadísticas de la caché de libros
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BookCacheStats getCacheStats() {
+        return bookCache.stats();
+    }
+
+    /**
+     * Inventario por categoría. Se sirve del agregado en memoria; mientras se calcula al arrancar,
+     * se consulta la base de datos.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CatalogStats getCatalogStats() {
+        if (bookStatsAggregator.isReady()) {
+            return bookStatsAggregator.snapshot();
+        }
+        log.debug("Estadísticas aún no calculadas, consultando base de datos");
+        return CatalogStats.from(bookRepository.aggregateByCategory(), Instant.now());
+    }
+
+    private List<BookSummary> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookSummary> books = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            bookRepository.findSummariesByIdIn(chunk).forEach(book -> books.put(book.getId(), book));
+        }
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private Book loadBook(Long id) {
+        return bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException("Libro no encontrado con ID: " + id));
+    }
 }
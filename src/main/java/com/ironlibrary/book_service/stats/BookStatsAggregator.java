@@ -0,0 +1,334 @@
+package com.ironlibrary.book_service.stats;
+
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import com.ironlibrary.book_service.dto.CatalogStats;
+import com.ironlibrary.book_service.dto.CategoryStats;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.inventory.InventoryCounters;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inventario por categoría mantenido en memoria con los BookChangedEvent confirmados.
+ * Los cambios de disponibilidad solo traen el ID y el ajuste, por eso se guarda lo contado de cada libro.
+ * Periódicamente se vuelve a contar cada libro con su estado en la base de datos y se corrige lo que no coincida.
+ * <p>
+ * Mientras un recuento recorre la tabla, los eventos no se aplican: se anotan sus libros y, al terminar
+ * el recorrido, se vuelven a leer en otra transacción (la del recorrido ve una foto anterior a esos cambios).
+ * Con el inventario en memoria activado, las copias disponibles de cada libro son las de sus contadores:
+ * en la base de datos van hasta un volcado por detrás.
+ */
+@Component
+@Slf4j
+public class BookStatsAggregator {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final BookRepository bookRepository;
+    private final InventoryCounters inventoryCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Counted> countedById = new ConcurrentHashMap<>();
+    private final AtomicLongArray titles = new AtomicLongArray(CATEGORIES.length);
+    private final AtomicLongArray totalCopies = new AtomicLongArray(CATEGORIES.length);
+    private final AtomicLongArray availableCopies = new AtomicLongArray(CATEGORIES.length);
+    private final Lock lock = new ReentrantLock();
+    // Un solo recuento a la vez (reconstrucción o conciliación)
+    private final Lock recountLock = new ReentrantLock();
+    private volatile boolean ready;
+    private volatile Instant reconciledAt;
+    /**
+     * Libros con eventos durante el recuento en curso; null si no hay ninguno (protegido por lock)
+     */
+    private Set<Long> touched;
+
+    public BookStatsAggregator(BookRepository bookRepository, InventoryCounters inventoryCounters,
+                               PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.inventoryCounters = inventoryCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Recalcular el inventario completo a partir del catálogo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Calculando estadísticas de inventario por categoría");
+        recountLock.lock();
+        try {
+            lock.lock();
+            try {
+                ready = false;
+                countedById.clear();
+                for (int i = 0; i < CATEGORIES.length; i++) {
+                    titles.set(i, 0);
+                    totalCopies.set(i, 0);
+                    availableCopies.set(i, 0);
+                }
+            } finally {
+                lock.unlock();
+            }
+            recount();
+            reconciledAt = Instant.now();
+            ready = true;
+        } finally {
+            recountLock.unlock();
+        }
+        log.info("Estadísticas de inventario calculadas: {} libros", countedById.size());
+    }
+
+    /**
+     * Aplicar los cambios confirmados al inventario
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.lock();
+        try {
+            if (touched != null) {
+                touched.add(event.getBookId());
+                return;
+            }
+            switch (event.getType()) {
+                case CREATED -> add(event.getAfter());
+                case UPDATED -> {
+                    remove(event.getBefore());
+                    add(event.getAfter());
+                }
+                case DELETED -> remove(event.getBefore());
+                case AVAILABILITY_CHANGED -> {
+                    Counted counted = countedById.get(event.getBookId());
+                    if (counted != null) {
+                        availableCopies.addAndGet(counted.category().ordinal(), event.getAvailabilityDelta());
+                        countedById.put(event.getBookId(), new Counted(counted.category(), counted.totalCopies(),
+                                counted.availableCopies() + event.getAvailabilityDelta()));
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Volver a contar cada libro y corregir lo que no coincida (p. ej. cambios hechos fuera del servicio
+     * o en otra instancia). Lo contado de cada libro se sustituye por su estado actual en lugar de sumar
+     * una diferencia, así que un cambio cuyo evento llega durante el recuento no se cuenta dos veces.
+     */
+    @Scheduled(fixedDelayString = "${book.stats.reconcile-interval:5m}",
+            initialDelayString = "${book.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+        recountLock.lock();
+        try {
+            int corrected = recount();
+            if (corrected > 0) {
+                log.warn("Estadísticas de inventario corregidas: {} libros no coincidían con la base de datos",
+                        corrected);
+            }
+            reconciledAt = Instant.now();
+        } finally {
+            recountLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Estado actual del inventario
+     */
+    public CatalogStats snapshot() {
+        List<CategoryStats> rows = new ArrayList<>(CATEGORIES.length);
+        for (Category category : CATEGORIES) {
+            int i = category.ordinal();
+            rows.add(new CategoryStats(category, titles.get(i), totalCopies.get(i), availableCopies.get(i)));
+        }
+        return CatalogStats.from(rows, reconciledAt);
+    }
+
+    /**
+     * Contar de nuevo cada libro con su estado actual (con recountLock). Los libros con eventos durante
+     * el recorrido se releen al terminarlo, y los contados que ya no están en la tabla se descuentan.
+     * @return libros cuyo recuento ha cambiado
+     */
+    private int recount() {
+        lock.lock();
+        try {
+            touched = new HashSet<>();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            Set<Long> scanned = new HashSet<>();
+            int[] corrected = {0};
+            transactionTemplate.executeWithoutResult(status -> ReplicaRouting.onPrimary(() ->
+                    bookRepository.forEachBook(book -> {
+                        overlay(book);
+                        lock.lock();
+                        try {
+                            scanned.add(book.getId());
+                            if (!touched.contains(book.getId()) && replace(book.getId(), book)) {
+                                corrected[0]++;
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    })));
+            lock.lock();
+            try {
+                for (Long id : List.copyOf(countedById.keySet())) {
+                    if (!scanned.contains(id) && !touched.contains(id) && replace(id, null)) {
+                        corrected[0]++;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return corrected[0] + rereadTouched();
+        } catch (RuntimeException e) {
+            // Los eventos vuelven a aplicarse; los anotados hasta ahora los corrige el siguiente recuento
+            lock.lock();
+            try {
+                touched = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Volver a leer los libros con eventos durante el recorrido y contarlos con su estado actual.
+     * Si mientras tanto llegan más eventos, sus libros se leen en otra vuelta; cuando una vuelta no
+     * recibe ninguno, los eventos vuelven a aplicarse directamente.
+     * @return libros cuyo recuento ha cambiado
+     */
+    private int rereadTouched() {
+        int corrected = 0;
+        while (true) {
+            Set<Long> reread;
+            lock.lock();
+            try {
+                if (touched.isEmpty()) {
+                    touched = null;
+                    return corrected;
+                }
+                reread = touched;
+                touched = new HashSet<>();
+            } finally {
+                lock.unlock();
+            }
+            Map<Long, Book> current = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> ReplicaRouting.onPrimary(() ->
+                    bookRepository.findAllById(reread).forEach(book -> {
+                        overlay(book);
+                        current.put(book.getId(), book);
+                    })));
+            lock.lock();
+            try {
+                for (Long id : reread) {
+                    if (replace(id, current.get(id))) {
+                        corrected++;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Las copias disponibles de los contadores en memoria, si están activados
+     */
+    private void overlay(Book book) {
+        if (inventoryCounters.isEnabled()) {
+            inventoryCounters.overlay(book);
+        }
+    }
+
+    /**
+     * Sustituir lo contado de un libro por su estado actual (con lock)
+     * @param book el libro, o null si ya no existe
+     * @return true si ha cambiado
+     */
+    private boolean replace(Long id, Book book) {
+        Counted current = book != null ? Counted.of(book) : null;
+        Counted previous = current != null ? countedById.put(id, current) : countedById.remove(id);
+        if (Objects.equals(previous, current)) {
+            return false;
+        }
+        if (previous != null) {
+            subtract(previous);
+        }
+        if (current != null) {
+            count(current);
+        }
+        return true;
+    }
+
+    private void add(Book book) {
+        Counted counted = Counted.of(book);
+        if (countedById.putIfAbsent(book.getId(), counted) != null) {
+            // Evento repetido: no contar dos veces el mismo libro
+            return;
+        }
+        count(counted);
+    }
+
+    private void remove(Book book) {
+        if (countedById.remove(book.getId()) == null) {
+            return;
+        }
+        subtract(Counted.of(book));
+    }
+
+    private void count(Counted counted) {
+        int i = counted.category().ordinal();
+        titles.incrementAndGet(i);
+        totalCopies.addAndGet(i, counted.totalCopies());
+        availableCopies.addAndGet(i, counted.availableCopies());
+    }
+
+    private void subtract(Counted counted) {
+        int i = counted.category().ordinal();
+        titles.decrementAndGet(i);
+        totalCopies.addAndGet(i, -counted.totalCopies());
+        availableCopies.addAndGet(i, -counted.availableCopies());
+    }
+
+    /**
+     * Lo que se ha contado de un libro
+     */
+    private record Counted(Category category, int totalCopies, int availableCopies) {
+
+        static Counted of(Book book) {
+            return new Counted(book.getCategory(), book.getTotalCopies(), book.getAvailableCopies());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ironlibrary.book_service.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un GET de listado cuya respuesta depende solo del catálogo.
+ * La respuesta lleva el ETag de la versión del catálogo y un If-None-Match que coincida
+ * se responde con 304 antes de ejecutar el controlador.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CatalogETag {
+}
@@ -0,0 +1,71 @@
+package com.ironlibrary.book_service.web;
+
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.datasource.ReplicaPool;
+import com.ironlibrary.book_service.datasource.ReplicaRouting;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * GET condicional para los listados marcados con {@link CatalogETag}.
+ * Si el cliente ya tiene la versión actual del catálogo se responde 304 sin consultar
+ * la base de datos ni serializar el listado; si no, se añade el ETag y continúa la petición.
+ * <p>
+ * Con réplicas, solo las peticiones condicionales (con If-None-Match) leen de la principal: la versión
+ * cambia en cuanto se confirma una escritura, y un listado leído de una réplica con retraso quedaría
+ * guardado por el cliente con un ETag que ya da por incluido ese cambio. El resto leen de una réplica y
+ * reciben un ETag que nunca coincide con la versión, de modo que la primera revalidación trae el listado
+ * de la principal con el ETag de verdad.
+ */
+@Component
+public class CatalogETagInterceptor implements AsyncHandlerInterceptor {
+
+    private final CatalogVersion catalogVersion;
+    private final boolean replicas;
+
+    public CatalogETagInterceptor(CatalogVersion catalogVersion, ObjectProvider<ReplicaPool> replicaPool) {
+        this.catalogVersion = catalogVersion;
+        this.replicas = replicaPool.getIfAvailable() != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // En una petición asíncrona la comprobación ya se hizo al recibirla
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || !(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(CatalogETag.class)) {
+            return true;
+        }
+        if (replicas && request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            response.setHeader(HttpHeaders.ETAG, catalogVersion.replicaEtag());
+            return true;
+        }
+        // La versión se lee antes de la consulta: si el catálogo cambia entre medias, el ETag
+        // queda atrasado respecto al listado y la siguiente petición lo recibe de nuevo.
+        // Los cambios de otras instancias llegan por el bus de invalidaciones, con su retraso
+        if (new ServletWebRequest(request, response).checkNotModified(catalogVersion.etag())) {
+            return false;
+        }
+        ReplicaRouting.pinToPrimary();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // El hilo de la petición queda libre y atenderá otras: la lectura sigue en otro hilo
+        ReplicaRouting.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRouting.unpin();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ironlibrary.book_service.web;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Conexiones Server-Sent Events abiertas de un tipo de suscripción.
+ * Las retira cuando terminan, caducan o fallan, y cierra la que falla al escribir (cliente desconectado).
+ * Quien la usa decide qué se envía y cuándo; el comentario periódico de mantenimiento lo programa él.
+ */
+@Slf4j
+public class SseEmitterRegistry {
+
+    private final String name;
+    private final Duration timeout;
+    private final Consumer<SseEmitter> onClose;
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param name nombre de la suscripción para los logs
+     * @param onClose se ejecuta una vez por conexión al retirarla
+     */
+    public SseEmitterRegistry(String name, Duration timeout, Consumer<SseEmitter> onClose) {
+        this.name = name;
+        this.timeout = timeout;
+        this.onClose = onClose;
+    }
+
+    public SseEmitterRegistry(String name, Duration timeout) {
+        this(name, timeout, emitter -> {
+        });
+    }
+
+    /**
+     * Abrir una conexión y registrarla
+     */
+    public SseEmitter open() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> remove(emitter));
+        emitter.onTimeout(() -> remove(emitter));
+        emitter.onError(e -> remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * Enviar un evento; si falla, la conexión se cierra
+     * @return false si la conexión se ha cerrado
+     */
+    public boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            remove(emitter);
+            log.debug("Suscripción a {} cerrada: {}", name, e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Retirar una conexión sin cerrarla (por ejemplo, si falla antes de devolverla al cliente)
+     */
+    public void remove(SseEmitter emitter) {
+        if (emitters.remove(emitter)) {
+            onClose.accept(emitter);
+        }
+    }
+
+    public void forEach(Consumer<SseEmitter> action) {
+        emitters.forEach(action);
+    }
+
+    /**
+     * Comentario para que proxies y balanceadores no cierren las conexiones inactivas
+     */
+    public void heartbeat() {
+        emitters.forEach(emitter -> send(emitter, SseEmitter.event().comment("ping")));
+    }
+
+    public int size() {
+        return emitters.size();
+    }
+}
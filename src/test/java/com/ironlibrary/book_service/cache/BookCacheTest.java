@@ -0,0 +1,232 @@
+package com.ironlibrary.book_service.cache;
+
+import com.ironlibrary.book_service.dto.BookCacheStats;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BookCache
+ */
+class BookCacheTest {
+
+    private final BookCache bookCache = new BookCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void get_ShouldReturnIndependentCopies() {
+        // Given
+        Book book = new Book("Cien años de soledad", "Gabriel García Márquez", "978-0-06-088328-7", Category.FICTION, 5);
+        book.setId(1L);
+        bookCache.get(1L, id -> book);
+
+        // When
+        Book first = bookCache.get(1L, id -> fail("No debería volver a cargar"));
+        first.setAvailableCopies(0);
+        Book second = bookCache.get(1L, id -> fail("No debería volver a cargar"));
+
+        // Then
+        assertEquals(5, second.getAvailableCopies());
+    }
+
+    @Test
+    void get_ShouldServeFromSharedTier_WhenAnotherNodeLoadedTheBook() {
+        // Given
+        SharedBookCache shared = new InMemorySharedBookCache(100, Duration.ofMinutes(1));
+        CacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+        BookCache nodeA = new BookCache(100, Duration.ofMinutes(1), shared, bus);
+        BookCache nodeB = new BookCache(100, Duration.ofMinutes(1), shared, bus);
+        Book book = new Book("Ficciones", "Jorge Luis Borges", "978-84-206-3323-4", Category.FICTION, 3);
+        book.setId(3L);
+        nodeA.get(3L, id -> book);
+
+        // When
+        Book fromShared = nodeB.get(3L, id -> fail("Debería servirse desde el nivel compartido"));
+
+        // Then
+        assertEquals("Ficciones", fromShared.getTitle());
+        BookCacheStats stats = nodeB.stats();
+        assertEquals(1, stats.getSharedHitCount());
+        assertEquals(0, stats.getSharedMissCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void invalidate_ShouldEvictEveryNode_WhenOneNodeWrites() {
+        // Given
+        SharedBookCache shared = new InMemorySharedBookCache(100, Duration.ofMinutes(1));
+        CacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+        BookCache nodeA = new BookCache(100, Duration.ofMinutes(1), shared, bus);
+        BookCache nodeB = new BookCache(100, Duration.ofMinutes(1), shared, bus);
+        Book book = new Book("Ficciones", "Jorge Luis Borges", "978-84-206-3323-4", Category.FICTION, 3);
+        book.setId(4L);
+        nodeA.get(4L, id -> book);
+        nodeB.get(4L, id -> book);
+        Book updated = book.copy();
+        updated.setAvailableCopies(0);
+
+        // When
+        nodeA.invalidate(4L);
+
+        // Then
+        assertNull(nodeB.getIfPresent(4L));
+        assertNull(shared.get(4L));
+        assertEquals(0, nodeB.get(4L, id -> updated).getAvailableCopies());
+    }
+
+    @Test
+    void get_ShouldFallBackToLoader_WhenSharedTierFails() {
+        // Given
+        SharedBookCache failing = mock(SharedBookCache.class);
+        when(failing.get(anyLong())).thenThrow(new IllegalStateException("sin conexión"));
+        doThrow(new IllegalStateException("sin conexión")).when(failing).put(anyLong(), any());
+        BookCache node = new BookCache(100, Duration.ofMinutes(1), failing, new InMemoryCacheInvalidationBus());
+        Book book = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 2);
+        book.setId(5L);
+
+        // When
+        Book result = node.get(5L, id -> book);
+
+        // Then
+        assertEquals("Rayuela", result.getTitle());
+        assertEquals(1, node.stats().getSharedMissCount());
+    }
+
+    @Test
+    void bindTo_ShouldPublishHitAndMissCounters() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bookCache.bindTo(registry);
+        Book book = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 2);
+        book.setId(2L);
+
+        // When
+        bookCache.get(2L, id -> book);
+        bookCache.get(2L, id -> book);
+
+        // Then
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "books", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "books", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhenConcurrentCallersMissTheSameBook() throws Exception {
+        // Given
+        int callers = 50;
+        Book book = new Book("Pedro Páramo", "Juan Rulfo", "978-84-376-0460-2", Category.FICTION, 4);
+        book.setId(6L);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<Future<Book>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> bookCache.get(6L, id -> {
+                    loaderCalls.incrementAndGet();
+                    await(release);
+                    return book;
+                })));
+            }
+            awaitCoalesced(callers - 1);
+            release.countDown();
+        }
+
+        // Then
+        assertEquals(1, loaderCalls.get());
+        for (Future<Book> result : results) {
+            assertEquals("Pedro Páramo", result.get().getTitle());
+        }
+        BookCacheStats stats = bookCache.stats();
+        assertEquals(1, stats.getLoadCount());
+        assertEquals(callers - 1, stats.getCoalescedCount());
+        assertEquals((double) (callers - 1) / callers, stats.getCoalescedRate());
+    }
+
+    @Test
+    void get_ShouldShareLoaderException_WithCoalescedCallers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        // When
+        Future<Book> leader;
+        Future<Book> follower;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            leader = executor.submit(() -> bookCache.get(7L, id -> {
+                loaderCalls.incrementAndGet();
+                await(release);
+                throw new IllegalStateException("base de datos caída");
+            }));
+            awaitLoading(1);
+            follower = executor.submit(() -> bookCache.get(7L, id -> fail("Debería esperar la carga en curso")));
+            awaitCoalesced(1);
+            release.countDown();
+        }
+
+        // Then
+        assertEquals(1, loaderCalls.get());
+        ExecutionException leaderError = assertThrows(ExecutionException.class, leader::get);
+        ExecutionException followerError = assertThrows(ExecutionException.class, follower::get);
+        assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+        assertSame(leaderError.getCause(), followerError.getCause());
+        assertNull(bookCache.getIfPresent(7L));
+    }
+
+    @Test
+    void get_ShouldNotCacheLoadedValue_WhenBookIsInvalidatedDuringLoad() {
+        // Given
+        SharedBookCache shared = new InMemorySharedBookCache(100, Duration.ofMinutes(1));
+        BookCache node = new BookCache(100, Duration.ofMinutes(1), shared, new InMemoryCacheInvalidationBus());
+        Book stale = new Book("Pedro Páramo", "Juan Rulfo", "978-84-376-0460-2", Category.FICTION, 4);
+        stale.setId(8L);
+
+        // When: el cambio se confirma mientras la carga tiene el valor anterior
+        Book result = node.get(8L, id -> {
+            node.invalidate(8L);
+            return stale;
+        });
+
+        // Then
+        assertEquals(4, result.getAvailableCopies());
+        assertNull(node.getIfPresent(8L));
+        assertNull(shared.get(8L));
+    }
+
+    private void awaitLoading(long loads) throws InterruptedException {
+        while (bookCache.stats().getLoadCount() < loads) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitCoalesced(long coalesced) throws InterruptedException {
+        while (bookCache.stats().getCoalescedCount() < coalesced) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,23 +1,62 @@
 package com.ironlibrary.book_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ironlibrary.book_service.cache.CacheInvalidationBus;
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.cache.InMemoryCacheInvalidationBus;
+import com.ironlibrary.book_service.dto.AvailabilityBatchRequest;
+import com.ironlibrary.book_service.dto.AvailabilityBatchResponse;
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.dto.AvailabilityChangeResult;
+import com.ironlibrary.book_service.dto.BookImportError;
+import com.ironlibrary.book_service.dto.BookImportReport;
+import com.ironlibrary.book_service.dto.BookPage;
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.CatalogStats;
+import com.ironlibrary.book_service.dto.CategoryStats;
+import com.ironlibrary.book_service.dto.PageResponse;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.exception.AvailabilityBatchException;
+import com.ironlibrary.book_service.exception.BookConflictException;
+import com.ironlibrary.book_service.importer.BookImportFormat;
 import com.ironlibrary.book_service.model.Book;
 import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
+import com.ironlibrary.book_service.outbox.BookChangeStream;
+import com.ironlibrary.book_service.service.BookImportService;
 import com.ironlibrary.book_service.service.BookService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
-
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -35,6 +74,31 @@ class BookControllerMockMvcTest {
         public BookService bookService() {
             return mock(BookService.class);
         }
+
+        @Bean
+        public BookImportService bookImportService() {
+            return mock(BookImportService.class);
+        }
+
+        @Bean
+        public BookChangeStream bookChangeStream() {
+            return mock(BookChangeStream.class);
+        }
+
+        @Bean
+        public AvailabilityWatch availabilityWatch() {
+            return new AvailabilityWatch(Duration.ofMinutes(1));
+        }
+
+        @Bean
+        public CacheInvalidationBus cacheInvalidationBus() {
+            return new InMemoryCacheInvalidationBus();
+        }
+
+        @Bean
+        public CatalogVersion catalogVersion(CacheInvalidationBus cacheInvalidationBus) {
+            return new CatalogVersion(cacheInvalidationBus);
+        }
     }
 
     @Autowired
@@ -43,6 +107,15 @@ class BookControllerMockMvcTest {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -51,7 +124,7 @@ class BookControllerMockMvcTest {
     @BeforeEach
     void setUp() {
         // Resetear el mock antes de cada test
-        reset(bookService);
+        reset(bookService, bookImportService);
 
         testBook = new Book();
         testBook.setId(1L);
@@ -83,6 +156,92 @@ class BookControllerMockMvcTest {
         verify(bookService).findAllBooks();
     }
 
+    @Test
+    void getBooksPage_ShouldReturnItemsAndNextCursor() throws Exception {
+        // Given
+        when(bookService.findBooksPage(0L, 1)).thenReturn(new BookPage(List.of(testBook), 1L));
+
+        // When & Then
+        mockMvc.perform(get("/api/books")
+                        .param("after", "0")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        verify(bookService).findBooksPage(0L, 1);
+    }
+
+    @Test
+    void streamAllBooks_ShouldWriteOneJsonPerLine() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            action.accept(testBook);
+            action.accept(testBook);
+            return null;
+        }).when(bookService).forEachBook(any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/books").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], Book.class).getId());
+    }
+
+    @Test
+    void getBooks_ShouldReturnBadRequest_WhenLimitAndFormatAreCombined() throws Exception {
+        mockMvc.perform(get("/api/books")
+                        .param("limit", "10")
+                        .param("format", "ndjson"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).findBooksPage(any(), anyInt());
+        verify(bookService, never()).forEachBook(any());
+    }
+
+    @Test
+    void exportBooks_ShouldStreamGzippedCsvWithHeader() throws Exception {
+        // Given
+        testBook.setTitle("Cien años de soledad, edición \"conmemorativa\"");
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            action.accept(testBook);
+            return null;
+        }).when(bookService).forEachBook(any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/books/export").param("format", "csv").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        byte[] compressed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", containsString("books.csv.gz")))
+                .andReturn().getResponse().getContentAsByteArray();
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("id,title,author,isbn,category,totalCopies,availableCopies\n"
+                + "1,\"Cien años de soledad, edición \"\"conmemorativa\"\"\",Gabriel García Márquez,978-84-376-0495-7,FICTION,5,3\n", csv);
+    }
+
+    @Test
+    void exportBooks_ShouldReturnBadRequest_WhenFormatIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).forEachBook(any());
+    }
+
     @Test
     void getBookById_ShouldReturnBookAsJson() throws Exception {
         // Given
@@ -98,10 +257,91 @@ class BookControllerMockMvcTest {
         verify(bookService).findBookById(1L);
     }
 
+    @Test
+    void getBookById_ShouldReturnNotModified_WhenETagMatchesVersion() throws Exception {
+        // Given
+        testBook.setVersion(3L);
+        testBook.setUpdatedAt(Instant.parse("2025-01-15T10:00:00Z"));
+        when(bookService.findBookById(1L)).thenReturn(testBook);
+
+        // When & Then
+        mockMvc.perform(get("/api/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-3\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Wed, 15 Jan 2025 10:00:00 GMT"))
+                .andExpect(jsonPath("$.version").value(3));
+
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2-3\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getBookById_ShouldReturnBook_WhenOnlyInMemoryAvailabilityChanged() throws Exception {
+        // Given
+        testBook.setVersion(3L);
+        when(bookService.findBookById(1L)).thenReturn(testBook);
+        String etag = mockMvc.perform(get("/api/books/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        testBook.setAvailableCopies(2);
+
+        // Then
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3-2\""))
+                .andExpect(jsonPath("$.availableCopies").value(2));
+    }
+
+    @Test
+    void getAvailableBooks_ShouldReturnNotModifiedWithoutQuerying_UntilCatalogChanges() throws Exception {
+        // Given
+        when(bookService.findAvailableBooks()).thenReturn(List.of(BookSummary.from(testBook)));
+        String etag = mockMvc.perform(get("/api/books/available"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/books/available").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verify(bookService, times(1)).findAvailableBooks();
+
+        catalogVersion.onBookChanged(BookChangedEvent.availabilityChanged(1L, -1));
+
+        String newEtag = mockMvc.perform(get("/api/books/available").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+        verify(bookService, times(2)).findAvailableBooks();
+    }
+
+    @Test
+    void getAvailableBooks_ShouldReturnFreshList_WhenAnotherInstanceChangesABook() throws Exception {
+        // Given
+        when(bookService.findAvailableBooks()).thenReturn(List.of(BookSummary.from(testBook)));
+        String etag = mockMvc.perform(get("/api/books/available"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        cacheInvalidationBus.publish(1L);
+
+        // Then
+        mockMvc.perform(get("/api/books/available").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(bookService, times(2)).findAvailableBooks();
+    }
+
     @Test
     void getAvailableBooks_ShouldReturnOnlyAvailableBooks() throws Exception {
         // Given
-        List<Book> availableBooks = Arrays.asList(testBook);
+        List<BookSummary> availableBooks = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findAvailableBooks()).thenReturn(availableBooks);
 
         // When & Then
@@ -116,7 +356,7 @@ class BookControllerMockMvcTest {
     @Test
     void getBooksByCategory_ShouldReturnBooksOfCategory() throws Exception {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findByCategory(Category.FICTION)).thenReturn(books);
 
         // When & Then
@@ -132,7 +372,7 @@ class BookControllerMockMvcTest {
     @Test
     void getBooksByAuthor_ShouldReturnBooksByAuthor() throws Exception {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findByAuthor("García")).thenReturn(books);
 
         // When & Then
@@ -148,7 +388,7 @@ class BookControllerMockMvcTest {
     @Test
     void getBooksByTitle_ShouldReturnBooksByTitle() throws Exception {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findByTitle("Cien")).thenReturn(books);
 
         // When & Then
@@ -161,6 +401,112 @@ class BookControllerMockMvcTest {
         verify(bookService).findByTitle("Cien");
     }
 
+    @Test
+    void suggest_ShouldReturnSuggestionsWithIds() throws Exception {
+        // Given
+        when(bookService.suggest("cie", 10)).thenReturn(List.of(
+                new BookSuggestion(1L, "Cien años de soledad", BookSuggestion.Field.TITLE)));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/suggest").param("q", "cie"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].text").value("Cien años de soledad"))
+                .andExpect(jsonPath("$[0].field").value("TITLE"));
+
+        verify(bookService).suggest("cie", 10);
+    }
+
+    @Test
+    void importBooks_ShouldReturnReportWithRejectedRows() throws Exception {
+        // Given
+        BookImportReport report = new BookImportReport(2, 1, 1,
+                List.of(new BookImportError(3, "978-84-376-0495-7", "Ya existe un libro con el ISBN: 978-84-376-0495-7")));
+        when(bookImportService.importBooks(any(), eq(BookImportFormat.CSV))).thenReturn(report);
+        String csv = """
+                title,author,isbn,category,totalCopies
+                El Principito,Antoine de Saint-Exupéry,978-84-9838-112-5,FICTION,3
+                Cien años de soledad,Gabriel García Márquez,978-84-376-0495-7,FICTION,5
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/books/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Ya existe un libro con el ISBN: 978-84-376-0495-7"));
+
+        verify(bookImportService).importBooks(any(), eq(BookImportFormat.CSV));
+    }
+
+    @Test
+    void getCatalogStats_ShouldReturnPerCategoryInventory() throws Exception {
+        // Given
+        when(bookService.getCatalogStats()).thenReturn(
+                CatalogStats.from(List.of(new CategoryStats(Category.FICTION, 1L, 5L, 3L)), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titles").value(1))
+                .andExpect(jsonPath("$.categories[0].category").value("FICTION"))
+                .andExpect(jsonPath("$.categories[0].availableCopies").value(3))
+                .andExpect(jsonPath("$.categories[0].utilization").value(0.4));
+    }
+
+    @Test
+    void searchBooks_ShouldBindFiltersAndPaging() throws Exception {
+        // Given
+        BookSearchCriteria criteria = new BookSearchCriteria(Category.FICTION, true, null, "garcía", null);
+        when(bookService.searchBooks(eq(criteria), any(Pageable.class)))
+                .thenReturn(new PageResponse<>(List.of(BookSummary.from(testBook)), 0, 10, 1, 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/search")
+                        .param("category", "FICTION")
+                        .param("available", "true")
+                        .param("author", "garcía")
+                        .param("size", "10")
+                        .param("sort", "author,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(bookService).searchBooks(eq(criteria), pageable.capture());
+        assertEquals(10, pageable.getValue().getPageSize());
+        assertEquals(Sort.Direction.DESC, pageable.getValue().getSort().getOrderFor("author").getDirection());
+    }
+
+    @Test
+    void streamAvailability_ShouldSendCurrentStateOfEachBook() throws Exception {
+        // Given
+        testBook.setAvailableCopies(0);
+        when(bookService.findBookById(1L)).thenReturn(testBook);
+
+        // When & Then
+        mockMvc.perform(get("/api/books/availability/stream").param("ids", "1"))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:availability")))
+                .andExpect(content().string(containsString("\"bookId\":1")))
+                .andExpect(content().string(containsString("\"available\":false")));
+    }
+
+    @Test
+    void streamAvailability_ShouldReturnBadRequest_WhenTooManyBooks() throws Exception {
+        // Given
+        String ids = IntStream.rangeClosed(1, AvailabilityWatch.MAX_BOOKS_PER_SUBSCRIPTION + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        // When & Then
+        mockMvc.perform(get("/api/books/availability/stream").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void isBookAvailable_ShouldReturnBooleanForAvailability() throws Exception {
         // Given
@@ -210,17 +556,65 @@ class BookControllerMockMvcTest {
         updatedBook.setTotalCopies(10);
         updatedBook.setAvailableCopies(8);
 
-        when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(updatedBook);
+        when(bookService.updateBook(eq(1L), any(Book.class), eq(3L))).thenReturn(updatedBook);
 
         // When & Then
         mockMvc.perform(put("/api/books/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-3-8\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedBook)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.title").value("Título actualizado"));
 
-        verify(bookService).updateBook(eq(1L), any(Book.class));
+        verify(bookService).updateBook(eq(1L), any(Book.class), eq(3L));
+    }
+
+    @Test
+    void updateBook_ShouldUpdateWithoutVersionCheck_WhenIfMatchIsMissingOrWildcard() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/books/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBook)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/books/1")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBook)))
+                .andExpect(status().isOk());
+
+        verify(bookService, times(2)).updateBook(eq(1L), any(Book.class));
+        verify(bookService, never()).updateBook(eq(1L), any(Book.class), anyLong());
+    }
+
+    @Test
+    void updateBook_ShouldReturnConflict_WhenIfMatchVersionIsStale() throws Exception {
+        // Given
+        when(bookService.updateBook(eq(1L), any(Book.class), eq(3L)))
+                .thenThrow(new BookConflictException("El libro con ID 1 ha sido modificado"));
+
+        // When & Then
+        mockMvc.perform(put("/api/books/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-3-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBook)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+
+        mockMvc.perform(put("/api/books/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBook)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(put("/api/books/1")
+                        .header(HttpHeaders.IF_MATCH, "1-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBook)))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).updateBook(eq(1L), any(Book.class));
     }
 
     @Test
@@ -249,6 +643,41 @@ class BookControllerMockMvcTest {
         verify(bookService).updateAvailability(1L, 1);
     }
 
+    @Test
+    void updateAvailabilityBatch_ShouldReturnResults() throws Exception {
+        // Given
+        List<AvailabilityChange> changes = List.of(new AvailabilityChange(1L, -1));
+        when(bookService.updateAvailabilityBatch(changes)).thenReturn(new AvailabilityBatchResponse(true,
+                List.of(new AvailabilityChangeResult(1L, -1, AvailabilityChangeResult.Status.OK, null))));
+
+        // When & Then
+        mockMvc.perform(post("/api/books/availability/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AvailabilityBatchRequest(changes))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true))
+                .andExpect(jsonPath("$.results[0].status").value("OK"));
+
+        verify(bookService).updateAvailabilityBatch(changes);
+    }
+
+    @Test
+    void updateAvailabilityBatch_ShouldReturnConflict_WhenBatchRejected() throws Exception {
+        // Given
+        List<AvailabilityChange> changes = List.of(new AvailabilityChange(1L, -5));
+        when(bookService.updateAvailabilityBatch(changes)).thenThrow(new AvailabilityBatchException("rechazado",
+                List.of(new AvailabilityChangeResult(1L, -5, AvailabilityChangeResult.Status.INSUFFICIENT_COPIES, "sin copias"))));
+
+        // When & Then
+        mockMvc.perform(post("/api/books/availability/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AvailabilityBatchRequest(changes))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.applied").value(false))
+                .andExpect(jsonPath("$.results[0].bookId").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("INSUFFICIENT_COPIES"));
+    }
+
     @Test
     void deleteBook_ShouldReturnNoContent() throws Exception {
         // Given
@@ -1,5 +1,6 @@
 package com.ironlibrary.book_service.controller;
 
+import com.ironlibrary.book_service.dto.BookSummary;
 import com.ironlibrary.book_service.model.Book;
 import com.ironlibrary.book_service.model.Category;
 import com.ironlibrary.book_service.service.BookService;
@@ -79,11 +80,11 @@ class BookControllerTest {
     @Test
     void getAvailableBooks_ShouldReturnAvailableBooks() {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findAvailableBooks()).thenReturn(books);
 
         // When
-        ResponseEntity<List<Book>> response = bookController.getAvailableBooks();
+        ResponseEntity<List<BookSummary>> response = bookController.getAvailableBooks();
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -96,11 +97,11 @@ class BookControllerTest {
     @Test
     void getBooksByCategory_ShouldReturnBooksOfCategory() {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findByCategory(Category.FICTION)).thenReturn(books);
 
         // When
-        ResponseEntity<List<Book>> response = bookController.getBooksByCategory(Category.FICTION);
+        ResponseEntity<List<BookSummary>> response = bookController.getBooksByCategory(Category.FICTION, null);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -113,11 +114,11 @@ class BookControllerTest {
     @Test
     void getBooksByAuthor_ShouldReturnBooksByAuthor() {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findByAuthor("García")).thenReturn(books);
 
         // When
-        ResponseEntity<List<Book>> response = bookController.getBooksByAuthor("García");
+        ResponseEntity<List<BookSummary>> response = bookController.getBooksByAuthor("García");
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -130,11 +131,11 @@ class BookControllerTest {
     @Test
     void getBooksByTitle_ShouldReturnBooksByTitle() {
         // Given
-        List<Book> books = Arrays.asList(testBook);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
         when(bookService.findByTitle("Cien")).thenReturn(books);
 
         // When
-        ResponseEntity<List<Book>> response = bookController.getBooksByTitle("Cien");
+        ResponseEntity<List<BookSummary>> response = bookController.getBooksByTitle("Cien");
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -199,17 +200,33 @@ class BookControllerTest {
         updatedBook.setTotalCopies(10);
         updatedBook.setAvailableCopies(8);
 
-        when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(updatedBook);
+        when(bookService.updateBook(eq(1L), any(Book.class), eq(3L))).thenReturn(updatedBook);
 
         // When
-        ResponseEntity<Book> response = bookController.updateBook(1L, updatedBook);
+        ResponseEntity<Book> response = bookController.updateBook(1L, updatedBook, "\"1-3-8\"");
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Nuevo título", response.getBody().getTitle());
         assertEquals("Nuevo autor", response.getBody().getAuthor());
+        verify(bookService).updateBook(eq(1L), any(Book.class), eq(3L));
+    }
+
+    @Test
+    void updateBook_ShouldSkipVersionCheck_WhenIfMatchIsMissing() {
+        // Given
+        Book updatedBook = new Book();
+        updatedBook.setTitle("Nuevo título");
+        when(bookService.updateBook(eq(1L), any(Book.class))).thenReturn(updatedBook);
+
+        // When
+        ResponseEntity<Book> response = bookController.updateBook(1L, updatedBook, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(bookService).updateBook(eq(1L), any(Book.class));
+        verify(bookService, never()).updateBook(eq(1L), any(Book.class), anyLong());
     }
 
     @Test
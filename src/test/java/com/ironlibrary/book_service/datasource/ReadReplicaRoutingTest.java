@@ -0,0 +1,165 @@
+package com.ironlibrary.book_service.datasource;
+
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.controller.BookController;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.service.BookService;
+import com.ironlibrary.book_service.web.CatalogETagInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del enrutado a réplicas con dos bases de datos H2: una hace de principal y otra de réplica.
+ * La replicación se simula copiando la principal a la réplica; lo que se escribe después
+ * solo está en la principal, como en una réplica con retraso.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "book.datasource.replicas.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "spring.jpa.show-sql=false",
+        "book.outbox.relay-interval=1h"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @Autowired
+    private BookController bookController;
+
+    @Autowired
+    private CatalogETagInterceptor catalogETagInterceptor;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Test
+    void readOnlyTransactions_ShouldReadFromReplica_AndWritesGoToPrimary() {
+        // Given
+        Long id = bookService.saveBook(
+                new Book("El túnel", "Ernesto Sabato", "978-84-376-0170-0", Category.FICTION, 2)).getId();
+        replicate();
+
+        // When
+        bookService.updateAvailability(id, -1);
+        Book fromReplica = bookService.findAllBooks().stream()
+                .filter(book -> book.getId().equals(id))
+                .findFirst()
+                .orElseThrow();
+
+        // Then
+        assertEquals(1, availableCopies(primary, id));
+        assertEquals(2, availableCopies(replica, id));
+        assertEquals(2, fromReplica.getAvailableCopies());
+        assertEquals(0, replicaPool.fallbackCount());
+    }
+
+    @Test
+    void findBookById_ShouldReadFromPrimary_WhenReplicaLags() {
+        // Given
+        Long id = bookService.saveBook(
+                new Book("Sobre héroes y tumbas", "Ernesto Sabato", "978-84-322-1722-4", Category.FICTION, 1)).getId();
+        replicate();
+
+        // When
+        bookService.updateAvailability(id, -1);
+
+        // Then
+        assertEquals(1, availableCopies(replica, id));
+        assertEquals(0, bookService.findBookById(id).getAvailableCopies());
+        assertFalse(bookService.isBookAvailable(id));
+    }
+
+    @Test
+    void catalogListRequests_ShouldReadFromReplica_WhenNotConditional() throws Exception {
+        // Given
+        Long id = bookService.saveBook(
+                new Book("El Aleph", "Jorge Luis Borges", "978-84-206-3302-5", Category.FICTION, 1)).getId();
+        replicate();
+        bookService.updateAvailability(id, -1);
+        HandlerMethod handler = new HandlerMethod(bookController, BookController.class.getMethod("getAllBooks"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        Book fromReplica = listedDuring(request, response, handler, id);
+
+        // Then
+        assertEquals(1, fromReplica.getAvailableCopies());
+        assertNotEquals(catalogVersion.etag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void catalogETagRequests_ShouldReadFromPrimary_WhenRevalidatingAndReplicaLags() throws Exception {
+        // Given
+        Long id = bookService.saveBook(
+                new Book("La invención de Morel", "Adolfo Bioy Casares", "978-84-376-0218-9", Category.FICTION, 1)).getId();
+        replicate();
+        bookService.updateAvailability(id, -1);
+        HandlerMethod handler = new HandlerMethod(bookController, BookController.class.getMethod("getAllBooks"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogVersion.replicaEtag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        Book fromPrimary = listedDuring(request, response, handler, id);
+
+        // Then
+        assertEquals(1, availableCopies(replica, id));
+        assertEquals(0, fromPrimary.getAvailableCopies());
+        assertEquals(catalogVersion.etag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Leer un libro del listado entre preHandle y afterCompletion del interceptor de ETag
+     */
+    private Book listedDuring(MockHttpServletRequest request, MockHttpServletResponse response,
+                              HandlerMethod handler, Long id) {
+        assertTrue(catalogETagInterceptor.preHandle(request, response, handler));
+        try {
+            return bookService.findAllBooks().stream()
+                    .filter(book -> book.getId().equals(id))
+                    .findFirst()
+                    .orElseThrow();
+        } finally {
+            catalogETagInterceptor.afterCompletion(request, response, handler, null);
+        }
+    }
+
+    /**
+     * Copiar el estado actual de la principal a la réplica
+     */
+    private void replicate() {
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT", String.class)) {
+            if (!statement.startsWith("--")) {
+                replica.execute(statement);
+            }
+        }
+    }
+
+    private static int availableCopies(JdbcTemplate database, Long id) {
+        return database.queryForObject("SELECT available_copies FROM books WHERE id = ?", Integer.class, id);
+    }
+}
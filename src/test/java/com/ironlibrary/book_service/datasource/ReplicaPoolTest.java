@@ -0,0 +1,109 @@
+package com.ironlibrary.book_service.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para ReplicaPool
+ */
+class ReplicaPoolTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Connection primaryConnection;
+    private Connection connectionA;
+    private Connection connectionB;
+    private ReplicaPool replicaPool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        connectionA = mock(Connection.class);
+        connectionB = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replicaA);
+        replicas.put("replica-2", replicaB);
+        replicaPool = new ReplicaPool(replicas, primary);
+    }
+
+    @Test
+    void getConnection_ShouldRotateBetweenReplicas() throws SQLException {
+        // When
+        Connection first = replicaPool.getConnection();
+        Connection second = replicaPool.getConnection();
+        Connection third = replicaPool.getConnection();
+
+        // Then
+        assertSame(connectionA, first);
+        assertSame(connectionB, second);
+        assertSame(connectionA, third);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_ShouldSkipReplica_WhenItFailsToConnect() throws SQLException {
+        // Given
+        when(replicaA.getConnection()).thenThrow(new SQLTransientConnectionException("sin conexión"));
+
+        // When
+        Connection first = replicaPool.getConnection();
+        Connection second = replicaPool.getConnection();
+
+        // Then
+        assertSame(connectionB, first);
+        assertSame(connectionB, second);
+        verify(replicaA, times(1)).getConnection();
+        assertEquals(1, replicaPool.healthyReplicas());
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimary_WhenNoReplicaIsAvailable() throws SQLException {
+        // Given
+        when(replicaA.getConnection()).thenThrow(new SQLTransientConnectionException("sin conexión"));
+        when(replicaB.getConnection()).thenThrow(new IllegalStateException("pool no iniciado"));
+
+        // When
+        Connection connection = replicaPool.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        assertEquals(0, replicaPool.healthyReplicas());
+        assertEquals(1, replicaPool.fallbackCount());
+    }
+
+    @Test
+    void checkHealth_ShouldRestoreReplica_WhenItAcceptsConnectionsAgain() throws SQLException {
+        // Given
+        when(replicaA.getConnection())
+                .thenThrow(new SQLTransientConnectionException("sin conexión"))
+                .thenReturn(connectionA);
+        when(connectionA.isValid(anyInt())).thenReturn(true);
+        replicaPool.getConnection();
+        assertEquals(1, replicaPool.healthyReplicas());
+
+        // When
+        replicaPool.checkHealth();
+
+        // Then
+        assertEquals(2, replicaPool.healthyReplicas());
+        verify(connectionA).close();
+    }
+}
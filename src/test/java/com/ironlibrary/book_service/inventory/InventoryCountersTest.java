@@ -0,0 +1,199 @@
+package com.ironlibrary.book_service.inventory;
+
+import com.ironlibrary.book_service.cache.BookCache;
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.model.InventoryFlush;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
+import com.ironlibrary.book_service.outbox.BookOutbox;
+import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.repository.InventoryFlushRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para InventoryCounters y su diario
+ */
+class InventoryCountersTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    private BookRepository bookRepository;
+    private InventoryFlushRepository inventoryFlushRepository;
+    private InventoryCounters inventoryCounters;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        inventoryFlushRepository = mock(InventoryFlushRepository.class);
+        inventoryCounters = new InventoryCounters(bookRepository, inventoryFlushRepository,
+                new BookCache(100, Duration.ofMinutes(1)), mock(BookOutbox.class), mock(AvailabilityWatch.class),
+                mock(PlatformTransactionManager.class),
+                true, journalDirectory);
+    }
+
+    @Test
+    void adjust_ShouldEnforceBounds_AndFlushCoalescedDeltasInOneBatch() throws Exception {
+        // Given
+        Book book = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 2);
+        book.setId(1L);
+        book.setAvailableCopies(1);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.adjustAvailableCopiesBatch(anyList())).thenReturn(new int[]{1});
+        inventoryCounters.start();
+
+        // When
+        inventoryCounters.adjust(1L, -1);
+        assertThrows(InsufficientCopiesException.class, () -> inventoryCounters.adjust(1L, -1));
+        inventoryCounters.adjust(1L, 1);
+        inventoryCounters.adjust(1L, 1);
+        assertThrows(IllegalArgumentException.class, () -> inventoryCounters.adjust(1L, 1));
+        inventoryCounters.flush();
+
+        // Then
+        Book read = book.copy();
+        inventoryCounters.overlay(read);
+        assertEquals(2, read.getAvailableCopies());
+        verify(bookRepository).adjustAvailableCopiesBatch(List.of(new AvailabilityChange(1L, 1)));
+        verify(inventoryFlushRepository).save(any(InventoryFlush.class));
+        assertEquals(1, segmentFiles(), "Solo debe quedar el segmento abierto");
+
+        inventoryCounters.flush();
+        verify(bookRepository, times(1)).adjustAvailableCopiesBatch(anyList());
+    }
+
+    @Test
+    void flush_ShouldKeepSegment_WhenDatabaseDoesNotReportUpdatedRows() throws Exception {
+        // Given
+        Book book = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 2);
+        book.setId(1L);
+        book.setAvailableCopies(1);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.adjustAvailableCopiesBatch(anyList()))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO})
+                .thenReturn(new int[]{1});
+        inventoryCounters.start();
+        inventoryCounters.adjust(1L, 1);
+
+        // When
+        assertThrows(IncorrectUpdateSemanticsDataAccessException.class, () -> inventoryCounters.flush());
+
+        // Then
+        verify(inventoryFlushRepository, never()).save(any(InventoryFlush.class));
+        assertEquals(2, segmentFiles(), "El segmento sin confirmar debe conservarse");
+
+        inventoryCounters.flush();
+        verify(bookRepository, times(2)).adjustAvailableCopiesBatch(List.of(new AvailabilityChange(1L, 1)));
+        verify(inventoryFlushRepository).save(any(InventoryFlush.class));
+        assertEquals(1, segmentFiles(), "Solo debe quedar el segmento abierto");
+    }
+
+    @Test
+    void overlay_ShouldAdvanceUpdatedAt_WhenAvailabilityChangedInMemory() throws Exception {
+        // Given
+        Book book = new Book("Ficciones", "Jorge Luis Borges", "978-84-206-3306-6", Category.FICTION, 2);
+        book.setId(1L);
+        book.setUpdatedAt(Instant.parse("2025-01-15T10:00:00Z"));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        inventoryCounters.start();
+
+        // When
+        inventoryCounters.adjust(1L, -1);
+
+        // Then
+        Book read = book.copy();
+        inventoryCounters.overlay(read);
+        assertEquals(1, read.getAvailableCopies());
+        assertEquals(book.getVersion(), read.getVersion());
+        assertTrue(read.getUpdatedAt().isAfter(book.getUpdatedAt()));
+    }
+
+    @Test
+    void start_ShouldReplayLeftoverSegments_AndSkipAlreadyAppliedOnes() throws Exception {
+        // Given
+        Files.writeString(journalDirectory.resolve("0000000000001-aaaaaaaa.log"), "1 -1;\n1 -1,2 3;\n2 -");
+        Files.writeString(journalDirectory.resolve("0000000000002-bbbbbbbb.log"), "1 5;\n");
+        when(inventoryFlushRepository.existsById("0000000000002-bbbbbbbb")).thenReturn(true);
+        when(bookRepository.adjustAvailableCopiesBatch(anyList())).thenReturn(new int[]{1, 1});
+
+        // When
+        inventoryCounters.start();
+
+        // Then
+        verify(bookRepository).adjustAvailableCopiesBatch(
+                List.of(new AvailabilityChange(1L, -2), new AvailabilityChange(2L, 3)));
+        verify(inventoryFlushRepository).deleteById("0000000000001-aaaaaaaa");
+        verify(inventoryFlushRepository).deleteById("0000000000002-bbbbbbbb");
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void adjustAll_ShouldRejectWholeBatch_WhenPendingLoansLeaveNoCopies() throws Exception {
+        // Given
+        Book first = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 1);
+        first.setId(1L);
+        Book second = new Book("Ficciones", "Jorge Luis Borges", "978-84-206-3323-4", Category.FICTION, 3);
+        second.setId(2L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(first));
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(second));
+        inventoryCounters.start();
+        inventoryCounters.adjust(1L, -1);
+
+        // When
+        InventoryCounters.Adjusted[] result = inventoryCounters.adjustAll(
+                List.of(new AvailabilityChange(1L, -1), new AvailabilityChange(2L, -1)));
+
+        // Then
+        assertNull(result[0]);
+        assertEquals(2, result[1].available());
+        Book read = second.copy();
+        inventoryCounters.overlay(read);
+        assertEquals(3, read.getAvailableCopies(), "Un lote rechazado no debe aplicar ningún ajuste");
+    }
+
+    @Test
+    void adjustAll_ShouldApplyBatchAsOneJournalEntry() throws Exception {
+        // Given
+        Book book = new Book("Ficciones", "Jorge Luis Borges", "978-84-206-3323-4", Category.FICTION, 3);
+        book.setId(2L);
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(book));
+        when(bookRepository.adjustAvailableCopiesBatch(anyList())).thenReturn(new int[]{1});
+        inventoryCounters.start();
+
+        // When
+        InventoryCounters.Adjusted[] result = inventoryCounters.adjustAll(
+                List.of(new AvailabilityChange(2L, -1), new AvailabilityChange(2L, -1)));
+        inventoryCounters.flush();
+
+        // Then
+        assertEquals(new InventoryCounters.Adjusted(2, 1), result[0]);
+        assertEquals(new InventoryCounters.Adjusted(1, 2), result[1]);
+        verify(bookRepository).adjustAvailableCopiesBatch(List.of(new AvailabilityChange(2L, -2)));
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.count();
+        }
+    }
+}
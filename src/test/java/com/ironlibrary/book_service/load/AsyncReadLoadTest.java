@@ -0,0 +1,137 @@
+package com.ironlibrary.book_service.load;
+
+import com.ironlibrary.book_service.BookServiceApplication;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de carga: comprobaciones de disponibilidad concurrentes contra la API MVC (/api/books)
+ * y contra la asíncrona (/api/async/books), con la configuración por defecto (hilos virtuales en Tomcat)
+ * y con pocos hilos de plataforma. Con hilos virtuales la API MVC ya no retiene hilos de Tomcat, así que
+ * la comparación que justifica la asíncrona es la de hilos de plataforma, donde el hilo de la petición
+ * se libera mientras la consulta espera a la base de datos.
+ * La caché dura muy poco para que buena parte de las peticiones llegue a la base de datos.
+ * Se ejecuta con ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@Slf4j
+class AsyncReadLoadTest {
+
+    private static final int BOOKS = 2_000;
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int TOMCAT_MAX_THREADS = 8;
+
+    @Test
+    void compareAvailabilityChecks_MvcVsAsync() throws Exception {
+        List<LoadResult> results = new ArrayList<>();
+        results.addAll(run(true));
+        results.addAll(run(false));
+
+        results.forEach(result -> log.info("{}", result));
+
+        results.forEach(result -> assertEquals(0, result.errors(), result.mode()));
+    }
+
+    private List<LoadResult> run(boolean virtualThreads) throws Exception {
+        String threading = virtualThreads ? "virtual" : "plataforma-" + TOMCAT_MAX_THREADS;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookServiceApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=jdbc:h2:mem:load_async_reads_" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "server.tomcat.max-connections=" + (CLIENTS * 2),
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "book.cache.ttl=5ms")
+                .run()) {
+            seed(context.getBean(BookRepository.class));
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return List.of(
+                    load("mvc, " + threading, baseUrl + "/api/books/"),
+                    load("async, " + threading, baseUrl + "/api/async/books/"));
+        }
+    }
+
+    private void seed(BookRepository bookRepository) {
+        bookRepository.saveAll(IntStream.range(0, BOOKS)
+                .mapToObj(i -> new Book("Libro " + i, "Autor " + (i % 50), "ISBN-ASYNC-" + i,
+                        Category.values()[i % Category.values().length], 5))
+                .toList());
+    }
+
+    private LoadResult load(String mode, String booksUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long id = 1 + (clientId * 31L + r * 7L) % BOOKS;
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(booksUrl + id + "/available"))
+                                .GET().build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        double throughput = latencies.length / (elapsed / 1_000_000_000.0);
+        double p99Millis = latencies[(int) (latencies.length * 0.99) - 1] / 1_000_000.0;
+        return new LoadResult(mode, throughput, p99Millis, errors.get());
+    }
+
+    private record LoadResult(String mode, double throughput, double p99Millis, int errors) {
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %.0f peticiones/s, p99 %.2f ms, errores %d", mode, throughput, p99Millis, errors);
+        }
+    }
+}
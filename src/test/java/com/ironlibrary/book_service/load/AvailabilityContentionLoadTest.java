@@ -0,0 +1,124 @@
+package com.ironlibrary.book_service.load;
+
+import com.ironlibrary.book_service.exception.BookConflictException;
+import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.service.BookService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de estrés: muchos préstamos y devoluciones concurrentes sobre un mismo libro,
+ * mezclados con actualizaciones completas con If-Match. Ningún ajuste confirmado puede perderse.
+ * Se ejecuta con ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:availability_contention;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class AvailabilityContentionLoadTest {
+
+    private static final int TOTAL_COPIES = 50;
+    private static final int INITIAL_AVAILABLE = 25;
+    private static final int WORKERS = 32;
+    private static final int OPERATIONS_PER_WORKER = 200;
+    private static final int EDITORS = 2;
+    private static final int EDITS_PER_EDITOR = 50;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void updateAvailability_ShouldNotLoseUpdates_UnderContention() throws Exception {
+        // Given
+        Book book = new Book("Libro disputado", "Autor", "ISBN-CONTENTION-1", Category.FICTION, TOTAL_COPIES);
+        book.setAvailableCopies(INITIAL_AVAILABLE);
+        Long id = bookRepository.save(book).getId();
+
+        AtomicInteger appliedDelta = new AtomicInteger();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger edits = new AtomicInteger();
+        AtomicInteger staleEdits = new AtomicInteger();
+
+        // When
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WORKERS; w++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < OPERATIONS_PER_WORKER; i++) {
+                        int delta = ThreadLocalRandom.current().nextBoolean() ? -1 : 1;
+                        try {
+                            bookService.updateAvailability(id, delta);
+                            appliedDelta.addAndGet(delta);
+                            applied.incrementAndGet();
+                        } catch (InsufficientCopiesException | IllegalArgumentException e) {
+                            rejected.incrementAndGet();
+                        } catch (BookConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int e = 0; e < EDITORS; e++) {
+                int editor = e;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < EDITS_PER_EDITOR; i++) {
+                        Book current = bookService.findBookById(id);
+                        // Título distinto en cada edición para que siempre haya cambios que escribir
+                        current.setTitle("Libro disputado (editor " + editor + ", revisión " + i + ")");
+                        try {
+                            bookService.updateBook(id, current, current.getVersion());
+                            edits.incrementAndGet();
+                        } catch (BookConflictException | OptimisticLockingFailureException ex) {
+                            staleEdits.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // Then
+        Book result = bookRepository.findById(id).orElseThrow();
+        log.info("Contención sobre un libro: {} ajustes/s ({} aplicados, {} rechazados, {} conflictos), "
+                        + "{} ediciones aplicadas y {} rechazadas por versión",
+                String.format("%.0f", applied.get() / elapsedSeconds), applied.get(), rejected.get(), conflicts.get(),
+                edits.get(), staleEdits.get());
+
+        assertEquals(INITIAL_AVAILABLE + appliedDelta.get(), result.getAvailableCopies());
+        assertEquals((long) applied.get() + edits.get(), result.getVersion());
+        assertEquals(WORKERS * OPERATIONS_PER_WORKER, applied.get() + rejected.get() + conflicts.get());
+    }
+}
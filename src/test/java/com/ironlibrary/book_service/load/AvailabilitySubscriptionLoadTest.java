@@ -0,0 +1,106 @@
+package com.ironlibrary.book_service.load;
+
+import com.ironlibrary.book_service.BookServiceApplication;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga: miles de suscripciones inactivas a la disponibilidad de un libro agotado,
+ * con pocos hilos en Tomcat. Una devolución debe llegar a todas.
+ * Se ejecuta con ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@Slf4j
+class AvailabilitySubscriptionLoadTest {
+
+    private static final int SUBSCRIBERS = 2_000;
+    private static final int TOMCAT_MAX_THREADS = 20;
+
+    @Test
+    void updateAvailability_ShouldNotifyEveryIdleSubscriber_WhenBookIsReturned() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookServiceApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=jdbc:h2:mem:load_availability_watch;DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=false",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "server.tomcat.max-connections=" + (SUBSCRIBERS * 2))
+                .run()) {
+            // Given
+            Book book = new Book("Lista de espera", "Autor", "ISBN-WAITLIST-1", Category.FICTION, 1);
+            book.setAvailableCopies(0);
+            Long id = context.getBean(BookRepository.class).save(book).getId();
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            CountDownLatch subscribed = new CountDownLatch(SUBSCRIBERS);
+            CountDownLatch notified = new CountDownLatch(SUBSCRIBERS);
+            // Sin try-with-resources: si algo falla, cerrar el contexto corta las conexiones que siguen abiertas
+            ExecutorService subscribers = Executors.newVirtualThreadPerTaskExecutor();
+            try {
+                HttpRequest subscribe = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/books/availability/stream?ids=" + id)).GET().build();
+                for (int i = 0; i < SUBSCRIBERS; i++) {
+                    subscribers.submit(() -> {
+                        HttpResponse<Stream<String>> response = client.send(subscribe, HttpResponse.BodyHandlers.ofLines());
+                        try (Stream<String> lines = response.body()) {
+                            lines.filter(line -> line.startsWith("data:"))
+                                    .forEach(line -> {
+                                        if (line.contains("\"available\":false")) {
+                                            subscribed.countDown();
+                                        } else if (line.contains("\"available\":true")) {
+                                            notified.countDown();
+                                            throw new IllegalStateException("fin");
+                                        }
+                                    });
+                        } catch (IllegalStateException e) {
+                            // Notificación recibida: se cierra la conexión
+                        }
+                        return null;
+                    });
+                }
+
+                assertTrue(subscribed.await(60, TimeUnit.SECONDS), "No se abrieron todas las suscripciones");
+                assertEquals(SUBSCRIBERS, context.getBean(AvailabilityWatch.class).subscribers());
+
+                // When
+                long start = System.nanoTime();
+                HttpResponse<Void> returned = client.send(HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/books/" + id + "/availability?copies=1"))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()).build(),
+                        HttpResponse.BodyHandlers.discarding());
+
+                // Then
+                assertEquals(200, returned.statusCode());
+                assertTrue(notified.await(30, TimeUnit.SECONDS), "No todas las suscripciones recibieron la devolución");
+                log.info("Devolución notificada a {} suscriptores en {} ms con {} hilos de Tomcat",
+                        SUBSCRIBERS, String.format("%.1f", (System.nanoTime() - start) / 1_000_000.0), TOMCAT_MAX_THREADS);
+            } finally {
+                subscribers.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ironlibrary.book_service.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga: la exportación del catálogo debe mantener el heap acotado
+ * independientemente del número de libros. Se ejecuta con ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:export_memory;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class CatalogExportMemoryTest {
+
+    private static final int BOOKS = 300_000;
+    private static final int INSERT_BATCH_SIZE = 5_000;
+    // Materializar 300.000 entidades ocupa varios cientos de MB; el streaming debe quedar muy por debajo
+    private static final long MAX_RETAINED_HEAP_BYTES = 64L * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedCatalog() {
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= BOOKS; i++) {
+            rows.add(new Object[]{"Libro de prueba número " + i, "Autor " + (i % 1_000), "ISBN-EXP-" + i, "FICTION", 3, 3});
+            if (rows.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate("INSERT INTO books (title, author, isbn, category, total_copies, available_copies) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @Test
+    void exportBooks_ShouldKeepHeapBounded_WhenCatalogIsLarge() throws Exception {
+        // Given
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                // Tras un GC solo queda la memoria retenida, no la basura generada por cada fila
+                System.gc();
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                sleep(200);
+            }
+        });
+
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/books/export?format=ndjson&gzip=true")).GET().build();
+
+        // When
+        long lines = 0;
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(response.body()), StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        } finally {
+            running.set(false);
+            sampler.join();
+        }
+
+        // Then
+        assertEquals(200, response.statusCode());
+        assertEquals(BOOKS, lines);
+        long retained = peak.get() - baseline;
+        log.info("Exportación de {} libros: heap retenido máximo {} MB", BOOKS, retained / (1024 * 1024));
+        assertTrue(retained < MAX_RETAINED_HEAP_BYTES, "Heap retenido durante la exportación: " + retained + " bytes");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ironlibrary.book_service.load;
+
+import com.ironlibrary.book_service.BookServiceApplication;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de carga: compara rendimiento y p99 del servicio con hilos de plataforma y con hilos virtuales.
+ * Se ejecuta con ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@Slf4j
+class ThreadingModeLoadTest {
+
+    private static final int BOOKS = 500;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int TOMCAT_MAX_THREADS = 50;
+
+    @Test
+    void compareThroughputAndLatency_PlatformVsVirtualThreads() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        log.info("{}", platform);
+        log.info("{}", virtual);
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookServiceApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=jdbc:h2:mem:load_" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.datasource.hikari.maximum-pool-size=20")
+                .run()) {
+            seed(context.getBean(BookRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return load(mode, "http://localhost:" + port);
+        }
+    }
+
+    private void seed(BookRepository bookRepository) {
+        List<Book> books = IntStream.range(0, BOOKS)
+                .mapToObj(i -> new Book("Libro " + i, "Autor " + (i % 50), "ISBN-LOAD-" + i,
+                        Category.values()[i % Category.values().length], 5))
+                .toList();
+        bookRepository.saveAll(books);
+    }
+
+    private LoadResult load(String mode, String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long after = (long) ((clientId * 31 + r) % BOOKS);
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/books?limit=20&after=" + after)).GET().build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        double throughput = latencies.length / (elapsed / 1_000_000_000.0);
+        double p99Millis = latencies[(int) (latencies.length * 0.99) - 1] / 1_000_000.0;
+        return new LoadResult(mode, throughput, p99Millis, errors.get());
+    }
+
+    private record LoadResult(String mode, double throughput, double p99Millis, int errors) {
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %.0f peticiones/s, p99 %.2f ms, errores %d", mode, throughput, p99Millis, errors);
+        }
+    }
+}
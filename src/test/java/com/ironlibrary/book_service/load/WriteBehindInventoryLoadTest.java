@@ -0,0 +1,112 @@
+package com.ironlibrary.book_service.load;
+
+import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.inventory.InventoryCounters;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.service.BookService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga del inventario en memoria con escritura diferida: muchos préstamos y devoluciones
+ * sobre unos pocos libros. Tras el último volcado, la base de datos debe coincidir exactamente con
+ * los ajustes aceptados. Se ejecuta con ./mvnw test -Pload-tests
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:write_behind;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "book.inventory.write-behind.enabled=true",
+        "book.inventory.flush-interval=50ms",
+        "book.inventory.journal-dir=${java.io.tmpdir}/book-service-write-behind-test"
+})
+@ActiveProfiles("test")
+class WriteBehindInventoryLoadTest {
+
+    private static final int HOT_BOOKS = 3;
+    private static final int TOTAL_COPIES = 100;
+    private static final int INITIAL_AVAILABLE = 50;
+    private static final int WORKERS = 64;
+    private static final int OPERATIONS_PER_WORKER = 2_000;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private InventoryCounters inventoryCounters;
+
+    @Test
+    void updateAvailability_ShouldMatchDatabaseAfterFlush_UnderFlashLoad() throws Exception {
+        // Given
+        long[] ids = new long[HOT_BOOKS];
+        for (int i = 0; i < HOT_BOOKS; i++) {
+            Book book = new Book("Superventas " + i, "Autor", "ISBN-HOT-" + i, Category.FICTION, TOTAL_COPIES);
+            book.setAvailableCopies(INITIAL_AVAILABLE);
+            ids[i] = bookRepository.save(book).getId();
+        }
+        AtomicIntegerArray appliedDelta = new AtomicIntegerArray(HOT_BOOKS);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // When
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < WORKERS; w++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS_PER_WORKER; i++) {
+                        int book = random.nextInt(HOT_BOOKS);
+                        int delta = random.nextBoolean() ? -1 : 1;
+                        try {
+                            bookService.updateAvailability(ids[book], delta);
+                            appliedDelta.addAndGet(book, delta);
+                            applied.incrementAndGet();
+                        } catch (InsufficientCopiesException | IllegalArgumentException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        inventoryCounters.flush();
+
+        // Then
+        log.info("Inventario en memoria: {} ajustes/s ({} aplicados, {} rechazados)",
+                String.format("%.0f", applied.get() / elapsedSeconds), applied.get(), rejected.get());
+        assertEquals(WORKERS * OPERATIONS_PER_WORKER, applied.get() + rejected.get());
+        for (int i = 0; i < HOT_BOOKS; i++) {
+            Book stored = bookRepository.findById(ids[i]).orElseThrow();
+            int expected = INITIAL_AVAILABLE + appliedDelta.get(i);
+            assertEquals(expected, stored.getAvailableCopies());
+            assertTrue(expected >= 0 && expected <= TOTAL_COPIES);
+            assertEquals(expected, bookService.findBookById(ids[i]).getAvailableCopies());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ironlibrary.book_service.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para RequestLoggingInterceptor
+ */
+class RequestLoggingInterceptorTest {
+
+    private RequestLoggingProperties properties;
+    private RequestLoggingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RequestLoggingProperties();
+        interceptor = new RequestLoggingInterceptor(properties);
+    }
+
+    @Test
+    void isSampled_ShouldUseDefaultRate_WhenEndpointHasNoOwnRate() {
+        // Given
+        properties.setDefaultSampleRate(1.0);
+
+        // When / Then
+        assertTrue(interceptor.isSampled("/api/books"));
+    }
+
+    @Test
+    void isSampled_ShouldNeverLog_WhenEndpointRateIsZero() {
+        // Given
+        properties.getSampleRates().put("/api/books/{id}/availability", 0.0);
+
+        // When
+        long sampled = IntStream.range(0, 1_000)
+                .filter(i -> interceptor.isSampled("/api/books/{id}/availability"))
+                .count();
+
+        // Then
+        assertEquals(0, sampled);
+        assertTrue(interceptor.isSampled("/api/books/{id}"));
+    }
+
+    @Test
+    void isSampled_ShouldLogApproximatelyTheConfiguredFraction() {
+        // Given
+        properties.getSampleRates().put("/api/books/suggest", 0.1);
+
+        // When
+        long sampled = IntStream.range(0, 10_000)
+                .filter(i -> interceptor.isSampled("/api/books/suggest"))
+                .count();
+
+        // Then
+        assertTrue(sampled > 700 && sampled < 1_300, "Muestras: " + sampled);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ironlibrary.book_service.outbox;
+
+import com.ironlibrary.book_service.dto.BookChangeMessage;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.model.OutboxEvent;
+import com.ironlibrary.book_service.repository.OutboxEventRepository;
+import com.ironlibrary.book_service.repository.OutboxRelayLockRepository;
+import com.ironlibrary.book_service.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del outbox de cambios y su relevo contra H2
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:book_outbox;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "book.outbox.relay-interval=1h"
+})
+@ActiveProfiles("test")
+class BookOutboxTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelayLockRepository outboxRelayLockRepository;
+
+    @Autowired
+    private InMemoryChangeEventSink sink;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void relay_ShouldPublishCommittedChangesInOrder_AndSkipRolledBackOnes() {
+        // Given
+        Book saved = bookService.saveBook(new Book("Pedro Páramo", "Juan Rulfo", "978-84-376-0460-2", Category.FICTION, 1));
+        Long id = saved.getId();
+        bookService.updateAvailability(id, -1);
+        assertThrows(InsufficientCopiesException.class, () -> bookService.updateAvailability(id, -1));
+        bookService.deleteBook(id);
+
+        // When
+        outboxRelay.relay();
+
+        // Then
+        List<BookChangeMessage> messages = sink.getMessages().stream()
+                .filter(message -> message.getBookId().equals(id))
+                .toList();
+        assertEquals(List.of(BookChangedEvent.Type.CREATED, BookChangedEvent.Type.AVAILABILITY_CHANGED,
+                        BookChangedEvent.Type.DELETED),
+                messages.stream().map(BookChangeMessage::getType).toList());
+        assertEquals(1, messages.get(0).getAvailableCopies());
+        assertEquals(-1, messages.get(1).getAvailabilityDelta());
+        assertTrue(messages.get(0).getId() < messages.get(1).getId());
+        assertTrue(outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(10)).isEmpty());
+
+        outboxRelay.relay();
+        assertEquals(3, sink.getMessages().stream().filter(message -> message.getBookId().equals(id)).count());
+    }
+
+    @Test
+    void relay_ShouldPublishEachEventOnce_WhenTwoInstancesRelayConcurrently() {
+        // Given
+        outboxRelay.relay();
+        List<Long> bookIds = LongStream.rangeClosed(1001, 1040).boxed().toList();
+        bookIds.forEach(bookId -> outboxEventRepository.save(
+                OutboxEvent.from(BookChangedEvent.availabilityChanged(bookId, -1), Instant.now())));
+        InMemoryChangeEventSink otherSink = new InMemoryChangeEventSink(1000);
+        OutboxRelay otherInstance = new OutboxRelay(outboxEventRepository, outboxRelayLockRepository,
+                List.of(otherSink), transactionManager, true, true, 5, Duration.ofHours(1));
+
+        // When
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(outboxRelay::relay),
+                CompletableFuture.runAsync(otherInstance::relay)).join();
+        outboxRelay.relay();
+
+        // Then
+        List<Long> published = Stream.concat(sink.getMessages().stream(), otherSink.getMessages().stream())
+                .map(BookChangeMessage::getBookId)
+                .filter(bookIds::contains)
+                .sorted()
+                .toList();
+        assertEquals(bookIds, published);
+        assertTrue(outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(10)).isEmpty());
+    }
+
+    @Test
+    void findPublishedAfter_ShouldReturnLowerId_WhenItIsPublishedLater() {
+        // Given: el evento de id menor aún no estaba confirmado cuando se publicó el de id mayor
+        OutboxEvent lower = outboxEventRepository.save(
+                OutboxEvent.from(BookChangedEvent.availabilityChanged(1L, -1), Instant.now()));
+        OutboxEvent higher = outboxEventRepository.save(
+                OutboxEvent.from(BookChangedEvent.availabilityChanged(2L, -1), Instant.now()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxEventRepository.markPublished(List.of(higher.getId()), Instant.now().minusSeconds(1)));
+        OutboxEvent streamed = outboxEventRepository.findById(higher.getId()).orElseThrow();
+
+        // When
+        outboxRelay.relay();
+        List<Long> after = outboxEventRepository.findPublishedAfter(
+                        streamed.getPublishedAt(), streamed.getId(), Limit.of(100)).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+
+        // Then
+        assertTrue(lower.getId() < higher.getId());
+        assertTrue(after.contains(lower.getId()));
+        assertFalse(after.contains(higher.getId()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de BookSpecifications contra H2
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BookSpecificationsTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        Book soldOut = new Book("Cien años de soledad", "Gabriel García Márquez", "978-84-376-0495-7", Category.FICTION, 2);
+        soldOut.setAvailableCopies(0);
+        bookRepository.saveAll(List.of(
+                soldOut,
+                new Book("El amor en los tiempos del cólera", "Gabriel García Márquez", "978-84-376-0496-4", Category.FICTION, 3),
+                new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 1),
+                new Book("Breve historia del tiempo", "Stephen Hawking", "978-84-8432-651-8", Category.SCIENCE, 4),
+                new Book("100% ciencia", "Ana_Pérez", "999-00-0000-000-X", Category.SCIENCE, 1)));
+    }
+
+    @Test
+    void matching_ShouldCombineCategoryAvailabilityAndAuthor() {
+        // Given
+        BookSearchCriteria criteria = new BookSearchCriteria(Category.FICTION, true, null, "garcía", null);
+
+        // When
+        List<Book> books = bookRepository.findAll(BookSpecifications.matching(criteria));
+
+        // Then
+        assertEquals(List.of("El amor en los tiempos del cólera"), books.stream().map(Book::getTitle).toList());
+    }
+
+    @Test
+    void matching_ShouldFilterUnavailableBooks() {
+        // Given
+        BookSearchCriteria criteria = new BookSearchCriteria(null, false, null, null, null);
+
+        // When
+        List<Book> books = bookRepository.findAll(BookSpecifications.matching(criteria));
+
+        // Then
+        assertEquals(List.of("Cien años de soledad"), books.stream().map(Book::getTitle).toList());
+    }
+
+    @Test
+    void matching_ShouldMatchIsbnPrefix_AndTreatLikeWildcardsLiterally() {
+        assertEquals(3, bookRepository.findAll(BookSpecifications.matching(
+                new BookSearchCriteria(null, null, null, null, "978-84-376"))).size());
+        assertEquals(1, bookRepository.findAll(BookSpecifications.matching(
+                new BookSearchCriteria(null, null, "%", null, null))).size());
+        assertEquals(0, bookRepository.findAll(BookSpecifications.matching(
+                new BookSearchCriteria(null, null, "_", null, null))).size());
+        assertEquals(1, bookRepository.findAll(BookSpecifications.matching(
+                new BookSearchCriteria(null, null, null, "a_p", null))).size());
+        assertEquals(1, bookRepository.findAll(BookSpecifications.matching(
+                new BookSearchCriteria(null, null, null, null, "999-00-0000-000-X"))).size());
+    }
+
+    @Test
+    void matching_ShouldReturnEverything_WhenNoFilterIsGiven_AndSupportPaging() {
+        // When
+        Page<Book> page = bookRepository.findAll(BookSpecifications.matching(new BookSearchCriteria()),
+                PageRequest.of(1, 2, Sort.by("title")));
+
+        // Then
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("Cien años de soledad", "El amor en los tiempos del cólera"),
+                page.getContent().stream().map(Book::getTitle).toList());
+    }
+}
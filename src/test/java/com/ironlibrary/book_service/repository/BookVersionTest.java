@@ -0,0 +1,60 @@
+package com.ironlibrary.book_service.repository;
+
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la versión y la fecha de modificación de Book contra H2
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BookVersionTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Test
+    void version_ShouldIncrease_OnEntityUpdateAndOnAvailabilityAdjustments() {
+        // Given
+        Book book = bookRepository.saveAndFlush(
+                new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 3));
+        Long id = book.getId();
+        Instant created = book.getUpdatedAt();
+        assertEquals(0L, book.getVersion());
+        assertNotNull(created);
+
+        // When
+        book.setTitle("Rayuela (edición conmemorativa)");
+        bookRepository.saveAndFlush(book);
+        bookRepository.adjustAvailableCopies(id, -1);
+        bookRepository.adjustAvailableCopiesBatch(List.of(new AvailabilityChange(id, -1)));
+
+        // Then
+        Book reloaded = bookRepository.findById(id).orElseThrow();
+        assertEquals(3L, reloaded.getVersion());
+        assertEquals(1, reloaded.getAvailableCopies());
+        assertFalse(reloaded.getUpdatedAt().isBefore(created));
+    }
+
+    @Test
+    void insertBatch_ShouldStartAtVersionZero() {
+        // When
+        bookRepository.insertBatch(List.of(
+                new Book("Breve historia del tiempo", "Stephen Hawking", "978-84-8432-651-8", Category.SCIENCE, 4)));
+
+        // Then
+        Book book = bookRepository.findByIsbn("978-84-8432-651-8").orElseThrow();
+        assertEquals(0L, book.getVersion());
+        assertNotNull(book.getUpdatedAt());
+    }
+}
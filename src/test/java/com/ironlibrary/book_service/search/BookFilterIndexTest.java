@@ -0,0 +1,141 @@
+package com.ironlibrary.book_service.search;
+
+import com.ironlibrary.book_service.cache.CatalogVersion;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BookFilterIndex
+ */
+class BookFilterIndexTest {
+
+    private BookRepository bookRepository;
+    private CatalogVersion catalogVersion;
+    private BookFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        catalogVersion = mock(CatalogVersion.class);
+        index = new BookFilterIndex(bookRepository, mock(PlatformTransactionManager.class), catalogVersion);
+        index.put(book(1L, Category.FICTION, 2));
+        index.put(book(2L, Category.FICTION, 0));
+        index.put(book(3L, Category.SCIENCE, 1));
+    }
+
+    @Test
+    void find_ShouldIntersectCategoryAndAvailability() {
+        assertEquals(List.of(1L), index.find(Category.FICTION, true));
+        assertEquals(List.of(2L), index.find(Category.FICTION, false));
+        assertEquals(List.of(1L, 2L), index.find(Category.FICTION, null));
+        assertEquals(List.of(1L, 3L), index.find(null, true));
+        assertEquals(List.of(), index.find(Category.HISTORY, null));
+    }
+
+    @Test
+    void onBookChanged_ShouldFlipAvailability_WhenCopiesCrossZero() {
+        // When
+        index.onBookChanged(BookChangedEvent.availabilityChanged(3L, -1));
+        index.onBookChanged(BookChangedEvent.availabilityChanged(2L, 1));
+        index.onBookChanged(BookChangedEvent.availabilityChanged(1L, -1));
+
+        // Then
+        assertEquals(List.of(1L, 2L), index.find(null, true));
+        assertEquals(List.of(3L), index.find(Category.SCIENCE, false));
+    }
+
+    @Test
+    void onBookChanged_ShouldMoveUpdatedBooksAndDropDeletedOnes() {
+        // When
+        index.onBookChanged(BookChangedEvent.updated(book(1L, Category.FICTION, 2), book(1L, Category.HISTORY, 2)));
+        index.onBookChanged(BookChangedEvent.deleted(book(3L, Category.SCIENCE, 1)));
+
+        // Then
+        assertEquals(List.of(2L), index.find(Category.FICTION, null));
+        assertEquals(List.of(1L), index.find(Category.HISTORY, true));
+        assertEquals(List.of(1L), index.find(null, true));
+    }
+
+    @Test
+    void reconcile_ShouldApplyChangesMadeOutsideThisInstance() {
+        // Given
+        scan(book(1L, Category.FICTION, 2), book(2L, Category.FICTION, 0), book(3L, Category.SCIENCE, 1));
+        index.rebuild();
+        scan(book(1L, Category.FICTION, 0), book(2L, Category.FICTION, 0), book(4L, Category.HISTORY, 3));
+
+        // When
+        index.reconcile();
+
+        // Then
+        assertEquals(List.of(4L), index.find(null, true));
+        assertEquals(List.of(1L, 2L), index.find(Category.FICTION, false));
+        assertEquals(List.of(), index.find(Category.SCIENCE, null));
+        verify(catalogVersion).changed();
+    }
+
+    @Test
+    void rebuild_ShouldRereadBooks_WhenTheyChangeDuringTheScan() {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            // El préstamo se confirma mientras se recorre la tabla, que ya leyó el libro con 1 copia
+            index.onBookChanged(BookChangedEvent.availabilityChanged(3L, -1));
+            action.accept(book(3L, Category.SCIENCE, 1));
+            return null;
+        }).when(bookRepository).forEachBook(any());
+        when(bookRepository.findAllById(Set.of(3L))).thenReturn(List.of(book(3L, Category.SCIENCE, 0)));
+
+        // When
+        index.rebuild();
+
+        // Then
+        assertTrue(index.isReady());
+        assertEquals(List.of(3L), index.find(Category.SCIENCE, false));
+        index.onBookChanged(BookChangedEvent.availabilityChanged(3L, 1));
+        assertEquals(List.of(3L), index.find(Category.SCIENCE, true));
+    }
+
+    @Test
+    void put_ShouldGrowBeyondInitialCapacity_AndReturnIdsInOrder() {
+        // Given
+        LongStream.rangeClosed(10_000, 5_000 + 10_000).forEach(id -> index.put(book(id, Category.HISTORY, 1)));
+
+        // When
+        List<Long> ids = index.find(Category.HISTORY, true);
+
+        // Then
+        assertEquals(5_001, ids.size());
+        assertEquals(10_000L, ids.get(0));
+        assertEquals(15_000L, ids.get(ids.size() - 1));
+    }
+
+    private void scan(Book... books) {
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            Arrays.stream(books).forEach(action);
+            return null;
+        }).when(bookRepository).forEachBook(any());
+    }
+
+    private static Book book(Long id, Category category, int availableCopies) {
+        Book book = new Book("Libro " + id, "Autor " + id, "ISBN-" + id, category, Math.max(availableCopies, 1));
+        book.setId(id);
+        book.setAvailableCopies(availableCopies);
+        return book;
+    }
+}
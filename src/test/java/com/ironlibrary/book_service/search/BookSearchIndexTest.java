@@ -0,0 +1,73 @@
+package com.ironlibrary.book_service.search;
+
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitarios para BookSearchIndex
+ */
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(mock(BookRepository.class), 500);
+        index.index(book(1L, "Cien años de soledad", "Gabriel García Márquez"));
+        index.index(book(2L, "El amor en los tiempos del cólera", "Gabriel García Márquez"));
+        index.index(book(3L, "Cien sonetos de amor", "Pablo Neruda"));
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndAccents() {
+        assertEquals(List.of(1L), index.search(BookSearchIndex.Field.TITLE, "AÑOS"));
+        assertEquals(List.of(2L), index.search(BookSearchIndex.Field.TITLE, "colera"));
+    }
+
+    @Test
+    void search_ShouldRequireAllWords_AndMatchLastWordAsPrefix() {
+        assertEquals(List.of(1L, 2L), index.search(BookSearchIndex.Field.AUTHOR, "garcia marq"));
+        assertTrue(index.search(BookSearchIndex.Field.AUTHOR, "garcia neruda").isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankExactMatchesBeforePrefixMatches() {
+        index.index(book(4L, "Amores perros", "Guillermo Arriaga"));
+
+        List<Long> result = index.search(BookSearchIndex.Field.TITLE, "amor");
+
+        assertEquals(List.of(3L, 2L, 4L), result);
+    }
+
+    @Test
+    void onBookChanged_ShouldReindexUpdatedAndRemoveDeletedBooks() {
+        Book before = book(1L, "Cien años de soledad", "Gabriel García Márquez");
+        Book after = book(1L, "Crónica de una muerte anunciada", "Gabriel García Márquez");
+
+        index.onBookChanged(BookChangedEvent.updated(before, after));
+        index.onBookChanged(BookChangedEvent.deleted(book(3L, "Cien sonetos de amor", "Pablo Neruda")));
+
+        assertTrue(index.search(BookSearchIndex.Field.TITLE, "cien").isEmpty());
+        assertEquals(List.of(1L), index.search(BookSearchIndex.Field.TITLE, "cronica"));
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_WhenQueryHasNoWords() {
+        assertTrue(index.search(BookSearchIndex.Field.TITLE, " - ").isEmpty());
+    }
+
+    private Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, "ISBN-" + id, Category.FICTION, 1);
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ironlibrary.book_service.search;
+
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitarios para BookSuggestionIndex
+ */
+class BookSuggestionIndexTest {
+
+    private BookSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSuggestionIndex(mock(BookRepository.class), Runnable::run, 1000);
+        index.put(book(1L, "Cien años de soledad", "Gabriel García Márquez"));
+        index.put(book(2L, "Crónica de una muerte anunciada", "Gabriel García Márquez"));
+        index.put(book(3L, "Cien sonetos de amor", "Pablo Neruda"));
+        index.compact();
+    }
+
+    @Test
+    void suggest_ShouldMatchPrefixOfAnyWord_InAlphabeticalOrder() {
+        List<BookSuggestion> result = index.suggest("cien", 10);
+
+        assertEquals(List.of(1L, 3L), result.stream().map(BookSuggestion::getId).toList());
+        assertEquals("Cien años de soledad", result.get(0).getText());
+
+        List<BookSuggestion> inner = index.suggest("SOLED", 10);
+        assertEquals(1, inner.size());
+        assertEquals(1L, inner.get(0).getId());
+    }
+
+    @Test
+    void suggest_ShouldReturnEachAuthorOnce() {
+        List<BookSuggestion> result = index.suggest("garcia", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(BookSuggestion.Field.AUTHOR, result.get(0).getField());
+        assertEquals("Gabriel García Márquez", result.get(0).getText());
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        assertEquals(1, index.suggest("c", 1).size());
+    }
+
+    @Test
+    void suggest_ShouldReflectChanges_BeforeAndAfterCompaction() {
+        index.onBookChanged(BookChangedEvent.updated(
+                book(1L, "Cien años de soledad", "Gabriel García Márquez"),
+                book(1L, "El otoño del patriarca", "Gabriel García Márquez")));
+        index.onBookChanged(BookChangedEvent.deleted(book(3L, "Cien sonetos de amor", "Pablo Neruda")));
+
+        assertTrue(index.suggest("cien", 10).isEmpty());
+        assertEquals(List.of(1L), index.suggest("otono", 10).stream().map(BookSuggestion::getId).toList());
+
+        index.compact();
+
+        assertTrue(index.suggest("cien", 10).isEmpty());
+        assertEquals(List.of(1L), index.suggest("patri", 10).stream().map(BookSuggestion::getId).toList());
+    }
+
+    private Book book(Long id, String title, String author) {
+        Book book = new Book(title, author, "ISBN-" + id, Category.FICTION, 1);
+        book.setId(id);
+        return book;
+    }
+}
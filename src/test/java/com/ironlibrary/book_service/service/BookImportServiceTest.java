@@ -0,0 +1,130 @@
+package com.ironlibrary.book_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ironlibrary.book_service.dto.BookImportReport;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.importer.BookImportFormat;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportService(bookRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, eventPublisher, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void importBooks_ShouldInsertValidRowsInChunks_AndReportInvalidRows() throws Exception {
+        // Given
+        String csv = """
+                title,author,isbn,category,totalCopies
+                Cien años de soledad,Gabriel García Márquez,978-84-376-0495-7,FICTION,5
+                "El amor en los tiempos del cólera, edición especial",Gabriel García Márquez,978-84-376-0496-4,fiction,2
+                Rayuela,Julio Cortázar,978-84-376-0494-7,POESIA,2
+                ,Isabel Allende,978-84-01-24213-5,FICTION,3
+                Breve historia del tiempo,Stephen Hawking,978-84-8432-651-8,SCIENCE,4
+                """;
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        Book saved = new Book("Cien años de soledad", "Gabriel García Márquez", "978-84-376-0495-7", Category.FICTION, 5);
+        saved.setId(10L);
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of(saved), List.of());
+
+        // When
+        BookImportReport report = bookImportService.importBooks(stream(csv), BookImportFormat.CSV);
+
+        // Then
+        assertEquals(5, report.getReceived());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertEquals("Categoría no válida: POESIA", report.getErrors().get(0).getMessage());
+        assertEquals(5, report.getErrors().get(1).getLine());
+        assertEquals("El título es obligatorio", report.getErrors().get(1).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Book>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository, times(2)).insertBatch(batches.capture());
+        assertEquals("El amor en los tiempos del cólera, edición especial", batches.getAllValues().get(0).get(1).getTitle());
+        assertEquals(Category.FICTION, batches.getAllValues().get(0).get(1).getCategory());
+        assertEquals(4, batches.getAllValues().get(1).get(0).getAvailableCopies());
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void importBooks_ShouldRejectDuplicateIsbns_InFileAndInDatabase() throws Exception {
+        // Given
+        String ndjson = """
+                {"title":"Rayuela","author":"Julio Cortázar","isbn":"978-84-376-0494-7","category":"FICTION","totalCopies":2}
+                {"title":"Rayuela (bolsillo)","author":"Julio Cortázar","isbn":"978-84-376-0494-7","category":"FICTION","totalCopies":1}
+                {"title":"Cien años de soledad","author":"Gabriel García Márquez","isbn":"978-84-376-0495-7","category":"FICTION","totalCopies":5}
+                {"title":"Sin cerrar"
+                """;
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of("978-84-376-0495-7"));
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of());
+
+        // When
+        BookImportReport report = bookImportService.importBooks(stream(ndjson), BookImportFormat.NDJSON);
+
+        // Then
+        assertEquals(4, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals("ISBN duplicado en la importación (ya aparece en la línea 1)", report.getErrors().get(0).getMessage());
+        assertEquals("Ya existe un libro con el ISBN: 978-84-376-0495-7", report.getErrors().get(1).getMessage());
+        assertEquals(4, report.getErrors().get(2).getLine());
+        assertTrue(report.getErrors().get(2).getMessage().startsWith("JSON no válido"));
+        verify(bookRepository, times(1)).insertBatch(argThat(books -> books.size() == 1));
+    }
+
+    @Test
+    void importBooks_ShouldFail_WhenCsvHeaderLacksRequiredColumns() {
+        // Given
+        String csv = "title,author\nRayuela,Julio Cortázar\n";
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookImportService.importBooks(stream(csv), BookImportFormat.CSV));
+        assertTrue(exception.getMessage().contains("isbn"));
+        verify(bookRepository, never()).insertBatch(any());
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ironlibrary.book_service.service;
+
+import com.ironlibrary.book_service.exception.BookNotFoundException;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BookReadService
+ */
+class BookReadServiceTest {
+
+    private BookService bookService;
+    private AtomicInteger submitted;
+    private BookReadService bookReadService;
+
+    @BeforeEach
+    void setUp() {
+        bookService = mock(BookService.class);
+        submitted = new AtomicInteger();
+        Executor countingExecutor = task -> {
+            submitted.incrementAndGet();
+            task.run();
+        };
+        bookReadService = new BookReadService(bookService, countingExecutor);
+    }
+
+    @Test
+    void findBookById_ShouldCompleteImmediately_WhenBookIsCached() {
+        // Given
+        Book book = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 2);
+        when(bookService.findCachedBookById(1L)).thenReturn(book);
+
+        // When
+        CompletableFuture<Boolean> available = bookReadService.isBookAvailable(1L);
+
+        // Then
+        assertTrue(available.isDone());
+        assertTrue(available.join());
+        assertEquals(0, submitted.get());
+        verify(bookService, never()).findBookById(anyLong());
+    }
+
+    @Test
+    void findBookById_ShouldLoadOnReadExecutor_WhenBookIsNotCached() {
+        // Given
+        Book book = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-7", Category.FICTION, 2);
+        when(bookService.findCachedBookById(1L)).thenReturn(null);
+        when(bookService.findBookById(1L)).thenReturn(book);
+
+        // When
+        Book result = bookReadService.findBookById(1L).join();
+
+        // Then
+        assertSame(book, result);
+        assertEquals(1, submitted.get());
+    }
+
+    @Test
+    void findBookById_ShouldCompleteExceptionally_WhenBookNotFound() {
+        // Given
+        when(bookService.findCachedBookById(99L)).thenReturn(null);
+        when(bookService.findBookById(99L)).thenThrow(new BookNotFoundException("Libro no encontrado con ID: 99"));
+
+        // When
+        CompletableFuture<Book> result = bookReadService.findBookById(99L);
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(BookNotFoundException.class, exception.getCause());
+    }
+}
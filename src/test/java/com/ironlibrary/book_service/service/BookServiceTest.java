@@ -1,23 +1,67 @@
 package com.ironlibrary.book_service.service;
 
+import com.ironlibrary.book_service.cache.BookCache;
+import com.ironlibrary.book_service.dto.AvailabilityBatchResponse;
+import com.ironlibrary.book_service.dto.AvailabilityChange;
+import com.ironlibrary.book_service.dto.AvailabilityChangeResult;
+import com.ironlibrary.book_service.dto.BookPage;
+import com.ironlibrary.book_service.dto.BookSearchCriteria;
+import com.ironlibrary.book_service.dto.BookSuggestion;
+import com.ironlibrary.book_service.dto.BookSummary;
+import com.ironlibrary.book_service.dto.CatalogStats;
+import com.ironlibrary.book_service.dto.CategoryStats;
+import com.ironlibrary.book_service.dto.PageResponse;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.exception.AvailabilityBatchException;
+import com.ironlibrary.book_service.exception.BookConflictException;
 import com.ironlibrary.book_service.exception.BookNotFoundException;
 import com.ironlibrary.book_service.exception.InsufficientCopiesException;
+import com.ironlibrary.book_service.inventory.InventoryCounters;
 import com.ironlibrary.book_service.model.Book;
 import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.notification.AvailabilityWatch;
 import com.ironlibrary.book_service.repository.BookRepository;
+import com.ironlibrary.book_service.search.BookFilterIndex;
+import com.ironlibrary.book_service.search.BookSearchIndex;
+import com.ironlibrary.book_service.search.BookSuggestionIndex;
+import com.ironlibrary.book_service.stats.BookStatsAggregator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +74,33 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(1));
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private BookSuggestionIndex bookSuggestionIndex;
+
+    @Mock
+    private BookFilterIndex bookFilterIndex;
+
+    @Mock
+    private BookStatsAggregator bookStatsAggregator;
+
+    @Mock
+    private InventoryCounters inventoryCounters;
+
+    @Mock
+    private AvailabilityWatch availabilityWatch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private BookService bookService;
 
@@ -63,6 +134,44 @@ class BookServiceTest {
         verify(bookRepository).findAll();
     }
 
+    @Test
+    void findBooksPage_ShouldReturnNextCursor_WhenMoreBooksExist() {
+        // Given
+        Book second = new Book("El Aleph", "Jorge Luis Borges", "978-84-206-3319-1", Category.FICTION, 2);
+        second.setId(2L);
+        Book third = new Book("Rayuela", "Julio Cortázar", "978-84-376-0494-0", Category.FICTION, 2);
+        third.setId(3L);
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(testBook, second, third));
+
+        // When
+        BookPage page = bookService.findBooksPage(null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getNextCursor());
+    }
+
+    @Test
+    void findBooksPage_ShouldReturnNullCursor_WhenLastPage() {
+        // Given
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(3))).thenReturn(List.of(testBook));
+
+        // When
+        BookPage page = bookService.findBooksPage(1L, 2);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findBooksPage_ShouldThrowException_WhenLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.findBooksPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> bookService.findBooksPage(null, BookService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(bookRepository);
+    }
+
     @Test
     void findBookById_ShouldReturnBook_WhenBookExists() {
         // Given
@@ -93,6 +202,69 @@ class BookServiceTest {
         verify(bookRepository).findById(1L);
     }
 
+    @Test
+    void findBookById_ShouldUseCache_WhenCalledTwice() {
+        // Given
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // When
+        Book first = bookService.findBookById(1L);
+        first.setTitle("Modificado por el llamante");
+        Book second = bookService.findBookById(1L);
+
+        // Then
+        assertEquals("Cien años de soledad", second.getTitle());
+        verify(bookRepository, times(1)).findById(1L);
+        assertEquals(1, bookService.getCacheStats().getHitCount());
+        assertEquals(1, bookService.getCacheStats().getMissCount());
+    }
+
+    @Test
+    void findBookById_ShouldRunOneQueryPerBurst_WhenCalledConcurrently() throws Exception {
+        // Given
+        int callers = 100;
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return Optional.of(testBook);
+        });
+
+        // When
+        List<Future<Book>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> bookService.findBookById(1L)));
+            }
+            while (bookService.getCacheStats().getCoalescedCount() < callers - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+        }
+
+        // Then
+        verify(bookRepository, times(1)).findById(1L);
+        for (Future<Book> result : results) {
+            assertEquals("Cien años de soledad", result.get().getTitle());
+        }
+        assertEquals(0.99, bookService.getCacheStats().getCoalescedRate(), 1e-9);
+    }
+
+    @Test
+    void updateAvailability_ShouldInvalidateCachedBook() {
+        // Given
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(1);
+        bookService.findBookById(1L);
+
+        // When
+        bookService.updateAvailability(1L, -1);
+        bookService.findBookById(1L);
+
+        // Then
+        verify(bookCache).invalidate(1L);
+        verify(bookRepository, times(2)).findById(1L);
+    }
+
     @Test
     void saveBook_ShouldReturnSavedBook_WhenValidBook() {
         // Given
@@ -109,6 +281,22 @@ class BookServiceTest {
         verify(bookRepository).save(testBook);
     }
 
+    @Test
+    void saveBook_ShouldPublishCreatedEvent() {
+        // Given
+        when(bookRepository.existsByIsbn(testBook.getIsbn())).thenReturn(false);
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+        // When
+        bookService.saveBook(testBook);
+
+        // Then
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(BookChangedEvent.Type.CREATED, event.getValue().getType());
+        assertEquals(1L, event.getValue().getBookId());
+    }
+
     @Test
     void saveBook_ShouldThrowException_WhenISBNExists() {
         // Given
@@ -153,7 +341,7 @@ class BookServiceTest {
 
         when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
         when(bookRepository.existsByIsbn(updatedData.getIsbn())).thenReturn(false);
-        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(testBook);
 
         // When
         Book result = bookService.updateBook(1L, updatedData);
@@ -161,7 +349,35 @@ class BookServiceTest {
         // Then
         assertEquals(updatedData.getTitle(), testBook.getTitle());
         assertEquals(updatedData.getAuthor(), testBook.getAuthor());
-        verify(bookRepository).save(testBook);
+        verify(bookRepository).saveAndFlush(testBook);
+    }
+
+    @Test
+    void updateBook_ShouldThrowConflict_WhenExpectedVersionIsStale() {
+        // Given
+        testBook.setVersion(4L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // When & Then
+        assertThrows(BookConflictException.class, () -> bookService.updateBook(1L, new Book(), 3L));
+        verify(bookRepository, never()).saveAndFlush(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateBook_ShouldFlushInventoryOutsideUpdateTransaction_WhenWriteBehindEnabled() {
+        // Given
+        testBook.setVersion(4L);
+        when(inventoryCounters.isEnabled()).thenReturn(true);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // When
+        assertThrows(BookConflictException.class, () -> bookService.updateBook(1L, new Book(), 3L));
+
+        // Then
+        InOrder inOrder = inOrder(inventoryCounters, transactionTemplate);
+        inOrder.verify(inventoryCounters).flush();
+        inOrder.verify(transactionTemplate).execute(any());
     }
 
     @Test
@@ -180,20 +396,21 @@ class BookServiceTest {
     @Test
     void updateAvailability_ShouldUpdateCopies_WhenValidData() {
         // Given
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
-        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(1);
 
         // When
         bookService.updateAvailability(1L, -1);
 
         // Then
-        assertEquals(2, testBook.getAvailableCopies());
-        verify(bookRepository).save(testBook);
+        verify(bookRepository).adjustAvailableCopies(1L, -1);
+        verify(bookRepository, never()).findById(anyLong());
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
     void updateAvailability_ShouldThrowException_WhenInsufficientCopies() {
         // Given
+        when(bookRepository.adjustAvailableCopies(1L, -5)).thenReturn(0);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
 
         // When & Then
@@ -209,6 +426,7 @@ class BookServiceTest {
     @Test
     void updateAvailability_ShouldThrowException_WhenExceedsTotalCopies() {
         // Given
+        when(bookRepository.adjustAvailableCopies(1L, 5)).thenReturn(0);
         when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
 
         // When & Then
@@ -221,34 +439,262 @@ class BookServiceTest {
         verify(bookRepository, never()).save(any());
     }
 
+    @Test
+    void updateAvailability_ShouldThrowNotFound_WhenBookNotExists() {
+        // Given
+        when(bookRepository.adjustAvailableCopies(99L, -1)).thenReturn(0);
+        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(BookNotFoundException.class, () -> bookService.updateAvailability(99L, -1));
+    }
+
+    @Test
+    void updateAvailability_ShouldRetry_WhenRowChangedConcurrently() {
+        // Given
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(0, 1);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // When
+        bookService.updateAvailability(1L, -1);
+
+        // Then
+        verify(bookRepository, times(2)).adjustAvailableCopies(1L, -1);
+    }
+
+    @Test
+    void updateAvailability_ShouldThrowConflict_WhenRetriesAreExhausted() {
+        // Given
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(0);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // When & Then
+        assertThrows(BookConflictException.class, () -> bookService.updateAvailability(1L, -1));
+        verify(bookRepository, times(5)).adjustAvailableCopies(1L, -1);
+        verify(transactionTemplate, times(5)).execute(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateAvailability_ShouldStopRetrying_WhenThreadIsInterrupted() {
+        // Given
+        when(bookRepository.adjustAvailableCopies(1L, -1)).thenReturn(0);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        Thread.currentThread().interrupt();
+
+        // When & Then
+        try {
+            assertThrows(BookConflictException.class, () -> bookService.updateAvailability(1L, -1));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        verify(bookRepository, times(1)).adjustAvailableCopies(1L, -1);
+    }
+
+    @Test
+    void updateAvailability_ShouldNotifyWatchers_WhenBookIsWatched() {
+        // Given
+        when(bookRepository.adjustAvailableCopies(1L, 1)).thenReturn(1);
+        when(availabilityWatch.isWatched(1L)).thenReturn(true);
+        testBook.setAvailableCopies(1);
+        testBook.setVersion(7L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // When
+        bookService.updateAvailability(1L, 1);
+
+        // Then
+        verify(availabilityWatch).availabilityChanged(1L, 7L, 0, 1);
+    }
+
+    @Test
+    void updateAvailability_ShouldNotReadResult_WhenBookIsNotWatched() {
+        // Given
+        when(bookRepository.adjustAvailableCopies(1L, 1)).thenReturn(1);
+
+        // When
+        bookService.updateAvailability(1L, 1);
+
+        // Then
+        verify(bookRepository, never()).findById(anyLong());
+        verify(availabilityWatch, never()).availabilityChanged(anyLong(), anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    void updateAvailability_ShouldAdjustInMemory_WhenWriteBehindEnabled() {
+        // Given
+        when(inventoryCounters.isEnabled()).thenReturn(true);
+        when(inventoryCounters.adjust(1L, -1)).thenReturn(new InventoryCounters.Adjusted(4, 9));
+
+        // When
+        bookService.updateAvailability(1L, -1);
+
+        // Then
+        verify(inventoryCounters).adjust(1L, -1);
+        verify(bookRepository, never()).adjustAvailableCopies(anyLong(), anyInt());
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+        verify(availabilityWatch).availabilityChanged(1L, 9L, 5, 4);
+    }
+
+    @Test
+    void updateAvailabilityBatch_ShouldApplyAllChanges_WhenAllValid() {
+        // Given
+        List<AvailabilityChange> changes = Arrays.asList(
+                new AvailabilityChange(2L, -1),
+                new AvailabilityChange(1L, -1));
+        when(bookRepository.adjustAvailableCopiesBatch(anyList())).thenReturn(new int[]{1, 1});
+
+        // When
+        AvailabilityBatchResponse response = bookService.updateAvailabilityBatch(changes);
+
+        // Then
+        assertTrue(response.isApplied());
+        assertEquals(2, response.getResults().size());
+        assertEquals(2L, response.getResults().get(0).getBookId());
+        assertEquals(AvailabilityChangeResult.Status.OK, response.getResults().get(0).getStatus());
+        verify(bookRepository).adjustAvailableCopiesBatch(Arrays.asList(changes.get(1), changes.get(0)));
+        verify(bookRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void updateAvailabilityBatch_ShouldReportRejectedChanges_WhenAnyInvalid() {
+        // Given
+        List<AvailabilityChange> changes = Arrays.asList(
+                new AvailabilityChange(1L, -5),
+                new AvailabilityChange(2L, -1),
+                new AvailabilityChange(3L, -1));
+        when(bookRepository.adjustAvailableCopiesBatch(anyList())).thenReturn(new int[]{0, 1, 0});
+        when(bookRepository.findAllById(any())).thenReturn(List.of(testBook));
+
+        // When & Then
+        AvailabilityBatchException exception = assertThrows(
+                AvailabilityBatchException.class,
+                () -> bookService.updateAvailabilityBatch(changes)
+        );
+
+        List<AvailabilityChangeResult> results = exception.getResults();
+        assertEquals(AvailabilityChangeResult.Status.INSUFFICIENT_COPIES, results.get(0).getStatus());
+        assertEquals(AvailabilityChangeResult.Status.OK, results.get(1).getStatus());
+        assertEquals(AvailabilityChangeResult.Status.BOOK_NOT_FOUND, results.get(2).getStatus());
+    }
+
+    @Test
+    void updateAvailabilityBatch_ShouldFail_WhenDatabaseDoesNotReportUpdatedRows() {
+        // Given
+        List<AvailabilityChange> changes = Arrays.asList(
+                new AvailabilityChange(1L, -1),
+                new AvailabilityChange(2L, -1));
+        when(bookRepository.adjustAvailableCopiesBatch(anyList())).thenReturn(new int[]{1, Statement.SUCCESS_NO_INFO});
+
+        // When & Then
+        assertThrows(IncorrectUpdateSemanticsDataAccessException.class,
+                () -> bookService.updateAvailabilityBatch(changes));
+
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(bookCache, never()).invalidate(any());
+    }
+
+    @Test
+    void updateAvailabilityBatch_ShouldApplyInMemory_WhenWriteBehindEnabled() {
+        // Given
+        List<AvailabilityChange> changes = Arrays.asList(
+                new AvailabilityChange(2L, -1),
+                new AvailabilityChange(1L, -1));
+        when(inventoryCounters.isEnabled()).thenReturn(true);
+        when(inventoryCounters.adjustAll(anyList())).thenReturn(new InventoryCounters.Adjusted[]{
+                new InventoryCounters.Adjusted(0, 5), new InventoryCounters.Adjusted(4, 7)});
+
+        // When
+        AvailabilityBatchResponse response = bookService.updateAvailabilityBatch(changes);
+
+        // Then
+        assertTrue(response.isApplied());
+        verify(inventoryCounters).adjustAll(Arrays.asList(changes.get(1), changes.get(0)));
+        verify(bookRepository, never()).adjustAvailableCopiesBatch(anyList());
+        verify(availabilityWatch).availabilityChanged(1L, 5L, 1, 0);
+        verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+    }
+
     @Test
     void findByCategory_ShouldReturnBooksOfCategory() {
         // Given
-        List<Book> books = Arrays.asList(testBook);
-        when(bookRepository.findByCategory(Category.FICTION)).thenReturn(books);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
+        when(bookRepository.findSummariesByCategory(Category.FICTION)).thenReturn(books);
 
         // When
-        List<Book> result = bookService.findByCategory(Category.FICTION);
+        List<BookSummary> result = bookService.findByCategory(Category.FICTION);
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookRepository).findByCategory(Category.FICTION);
+        verify(bookRepository).findSummariesByCategory(Category.FICTION);
     }
 
     @Test
     void findAvailableBooks_ShouldReturnAvailableBooks() {
         // Given
-        List<Book> books = Arrays.asList(testBook);
-        when(bookRepository.findAvailableBooks()).thenReturn(books);
+        List<BookSummary> books = Arrays.asList(BookSummary.from(testBook));
+        when(bookRepository.findAvailableSummaries()).thenReturn(books);
 
         // When
-        List<Book> result = bookService.findAvailableBooks();
+        List<BookSummary> result = bookService.findAvailableBooks();
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookRepository).findAvailableBooks();
+        verify(bookRepository).findAvailableSummaries();
+    }
+
+    @Test
+    void findByTitle_ShouldReturnBooksInIndexOrder_WhenIndexReady() {
+        // Given
+        Book other = new Book("Cien sonetos de amor", "Pablo Neruda", "978-84-322-0791-2", Category.FICTION, 1);
+        other.setId(2L);
+        when(bookSearchIndex.isReady()).thenReturn(true);
+        when(bookSearchIndex.search(BookSearchIndex.Field.TITLE, "cien")).thenReturn(List.of(2L, 1L));
+        when(bookRepository.findSummariesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(BookSummary.from(testBook), BookSummary.from(other)));
+
+        // When
+        List<BookSummary> result = bookService.findByTitle("cien");
+
+        // Then
+        assertEquals(List.of(2L, 1L), result.stream().map(BookSummary::getId).toList());
+        verify(bookRepository, never()).findSummariesByTitleContaining(any());
+    }
+
+    @Test
+    void findByAuthor_ShouldQueryDatabase_WhenIndexNotReady() {
+        // Given
+        when(bookSearchIndex.isReady()).thenReturn(false);
+        when(bookRepository.findSummariesByAuthorContaining("García")).thenReturn(List.of(BookSummary.from(testBook)));
+
+        // When
+        List<BookSummary> result = bookService.findByAuthor("García");
+
+        // Then
+        assertEquals(1, result.size());
+        verify(bookSearchIndex, never()).search(any(), any());
+    }
+
+    @Test
+    void suggest_ShouldDelegateToSuggestionIndex_WithoutQueryingDatabase() {
+        // Given
+        List<BookSuggestion> suggestions = List.of(
+                new BookSuggestion(1L, "Cien años de soledad", BookSuggestion.Field.TITLE));
+        when(bookSuggestionIndex.suggest("cie", 5)).thenReturn(suggestions);
+
+        // When
+        List<BookSuggestion> result = bookService.suggest("cie", 5);
+
+        // Then
+        assertEquals(suggestions, result);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void suggest_ShouldThrowException_WhenLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.suggest("cie", BookService.MAX_SUGGESTIONS + 1));
     }
 
     @Test
@@ -277,4 +723,103 @@ class BookServiceTest {
         assertFalse(result);
         verify(bookRepository).findById(1L);
     }
+
+    @Test
+    void getCatalogStats_ShouldUseAggregate_WhenReady() {
+        // Given
+        CatalogStats snapshot = CatalogStats.from(List.of(new CategoryStats(Category.FICTION, 1L, 5L, 3L)), null);
+        when(bookStatsAggregator.isReady()).thenReturn(true);
+        when(bookStatsAggregator.snapshot()).thenReturn(snapshot);
+
+        // When
+        CatalogStats result = bookService.getCatalogStats();
+
+        // Then
+        assertSame(snapshot, result);
+        verify(bookRepository, never()).aggregateByCategory();
+    }
+
+    @Test
+    void getCatalogStats_ShouldQueryDatabase_WhenAggregateNotReady() {
+        // Given
+        when(bookStatsAggregator.isReady()).thenReturn(false);
+        when(bookRepository.aggregateByCategory()).thenReturn(List.of(
+                new CategoryStats(Category.FICTION, 2L, 10L, 5L),
+                new CategoryStats(Category.SCIENCE, 1L, 2L, 2L)));
+
+        // When
+        CatalogStats result = bookService.getCatalogStats();
+
+        // Then
+        assertEquals(3, result.getTitles());
+        assertEquals(12, result.getTotalCopies());
+        assertEquals(7, result.getAvailableCopies());
+        assertEquals(Category.values().length, result.getCategories().size());
+        assertEquals(0.5, result.getCategories().get(Category.FICTION.ordinal()).getUtilization());
+    }
+
+    @Test
+    void searchBooks_ShouldAddIdAsTieBreaker_AndMapToSummaries() {
+        // Given
+        BookSearchCriteria criteria = new BookSearchCriteria(Category.FICTION, true, null, null, null);
+        when(bookRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(testBook), invocation.getArgument(1), 1));
+
+        // When
+        PageResponse<BookSummary> result = bookService.searchBooks(criteria, PageRequest.of(0, 20, Sort.by("title")));
+
+        // Then
+        assertEquals(1, result.getItems().size());
+        assertEquals("Cien años de soledad", result.getItems().get(0).getTitle());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(bookRepository).findAll(any(Specification.class), pageable.capture());
+        assertEquals(Sort.by("title").and(Sort.by("id")), pageable.getValue().getSort());
+    }
+
+    @Test
+    void searchBooks_ShouldRejectUnknownSortProperty() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> bookService.searchBooks(new BookSearchCriteria(), PageRequest.of(0, 20, Sort.by("isbn"))));
+        assertEquals("No se puede ordenar por: isbn", exception.getMessage());
+        verify(bookRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void findByCategory_ShouldHydrateOnlyFilterIndexMatches_WhenIndexReady() {
+        // Given
+        when(bookFilterIndex.isReady()).thenReturn(true);
+        when(bookFilterIndex.find(Category.FICTION, true)).thenReturn(List.of(1L));
+        when(bookRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(BookSummary.from(testBook)));
+
+        // When
+        List<BookSummary> result = bookService.findByCategory(Category.FICTION, true);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        verify(bookRepository, never()).findSummariesByCategory(any());
+    }
+
+    @Test
+    void findAvailableBooks_ShouldHydrateInChunks_WhenManyBooksMatch() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(bookFilterIndex.isReady()).thenReturn(true);
+        when(bookFilterIndex.find(null, true)).thenReturn(ids);
+        when(bookRepository.findSummariesByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(id -> new BookSummary(id, "Libro " + id, "Autor", Category.FICTION, 1))
+                    .toList();
+        });
+
+        // When
+        List<BookSummary> result = bookService.findAvailableBooks();
+
+        // Then
+        assertEquals(2500, result.size());
+        assertEquals(2500L, result.get(2499).getId());
+        verify(bookRepository, times(3)).findSummariesByIdIn(anyList());
+    }
 }
@@ -0,0 +1,168 @@
+package com.ironlibrary.book_service.stats;
+
+import com.ironlibrary.book_service.dto.CatalogStats;
+import com.ironlibrary.book_service.dto.CategoryStats;
+import com.ironlibrary.book_service.event.BookChangedEvent;
+import com.ironlibrary.book_service.inventory.InventoryCounters;
+import com.ironlibrary.book_service.model.Book;
+import com.ironlibrary.book_service.model.Category;
+import com.ironlibrary.book_service.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitarios para BookStatsAggregator
+ */
+class BookStatsAggregatorTest {
+
+    private BookRepository bookRepository;
+    private InventoryCounters inventoryCounters;
+    private BookStatsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        inventoryCounters = mock(InventoryCounters.class);
+        scan(book(1L, Category.FICTION, 5, 3), book(2L, Category.SCIENCE, 2, 2));
+        aggregator = new BookStatsAggregator(bookRepository, inventoryCounters, mock(PlatformTransactionManager.class));
+        aggregator.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldComputePerCategoryTotals() {
+        CatalogStats stats = aggregator.snapshot();
+
+        assertTrue(aggregator.isReady());
+        assertEquals(2, stats.getTitles());
+        assertEquals(stats(Category.FICTION, 1, 5, 3), stats.getCategories().get(Category.FICTION.ordinal()));
+        assertEquals(0.4, stats.getCategories().get(Category.FICTION.ordinal()).getUtilization(), 1e-9);
+        assertEquals(stats(Category.HISTORY, 0, 0, 0), stats.getCategories().get(Category.HISTORY.ordinal()));
+    }
+
+    @Test
+    void onBookChanged_ShouldApplyEveryChangeType() {
+        // When
+        aggregator.onBookChanged(BookChangedEvent.created(book(3L, Category.HISTORY, 4, 4)));
+        aggregator.onBookChanged(BookChangedEvent.availabilityChanged(1L, -2));
+        aggregator.onBookChanged(BookChangedEvent.updated(book(2L, Category.SCIENCE, 2, 2), book(2L, Category.HISTORY, 3, 3)));
+        aggregator.onBookChanged(BookChangedEvent.deleted(book(3L, Category.HISTORY, 4, 4)));
+
+        // Then
+        CatalogStats stats = aggregator.snapshot();
+        assertEquals(stats(Category.FICTION, 1, 5, 1), stats.getCategories().get(Category.FICTION.ordinal()));
+        assertEquals(stats(Category.SCIENCE, 0, 0, 0), stats.getCategories().get(Category.SCIENCE.ordinal()));
+        assertEquals(stats(Category.HISTORY, 1, 3, 3), stats.getCategories().get(Category.HISTORY.ordinal()));
+    }
+
+    @Test
+    void reconcile_ShouldReplaceDriftedBooksWithDatabaseState() {
+        // Given: fuera del servicio se prestaron las 3 copias del libro 1 y se borró el libro 2
+        scan(book(1L, Category.FICTION, 5, 0));
+
+        // When
+        aggregator.reconcile();
+        aggregator.onBookChanged(BookChangedEvent.availabilityChanged(1L, 1));
+
+        // Then
+        CatalogStats stats = aggregator.snapshot();
+        assertEquals(stats(Category.FICTION, 1, 5, 1), stats.getCategories().get(Category.FICTION.ordinal()));
+        assertEquals(stats(Category.SCIENCE, 0, 0, 0), stats.getCategories().get(Category.SCIENCE.ordinal()));
+        assertEquals(5, stats.getTotalCopies());
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    void reconcile_ShouldUseInMemoryInventory_WhenWriteBehindEnabled() {
+        // Given: la base de datos aún no tiene el préstamo que ya está en los contadores
+        when(inventoryCounters.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            if (book.getId().equals(1L)) {
+                book.setAvailableCopies(2);
+            }
+            return null;
+        }).when(inventoryCounters).overlay(any(Book.class));
+
+        // When
+        aggregator.reconcile();
+
+        // Then
+        CatalogStats stats = aggregator.snapshot();
+        assertEquals(stats(Category.FICTION, 1, 5, 2), stats.getCategories().get(Category.FICTION.ordinal()));
+        assertEquals(stats(Category.SCIENCE, 1, 2, 2), stats.getCategories().get(Category.SCIENCE.ordinal()));
+    }
+
+    @Test
+    void rebuild_ShouldRereadBooks_WhenTheyChangeDuringTheScan() {
+        // Given: el recorrido lee el libro 1 con 3 copias disponibles y, mientras sigue, se confirma un préstamo
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            action.accept(book(1L, Category.FICTION, 5, 3));
+            aggregator.onBookChanged(BookChangedEvent.availabilityChanged(1L, -1));
+            aggregator.onBookChanged(BookChangedEvent.availabilityChanged(2L, -1));
+            action.accept(book(2L, Category.SCIENCE, 2, 2));
+            return null;
+        }).when(bookRepository).forEachBook(any());
+        when(bookRepository.findAllById(any())).thenReturn(List.of(
+                book(1L, Category.FICTION, 5, 2), book(2L, Category.SCIENCE, 2, 1)));
+
+        // When
+        aggregator.rebuild();
+
+        // Then
+        CatalogStats stats = aggregator.snapshot();
+        assertEquals(stats(Category.FICTION, 1, 5, 2), stats.getCategories().get(Category.FICTION.ordinal()));
+        assertEquals(stats(Category.SCIENCE, 1, 2, 1), stats.getCategories().get(Category.SCIENCE.ordinal()));
+    }
+
+    @Test
+    void reconcile_ShouldNotCountTwice_ChangesThatArriveDuringTheScan() {
+        // Given: el recorrido ve el libro 1 ya con el préstamo, cuyo evento llega durante el recorrido
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            action.accept(book(1L, Category.FICTION, 5, 2));
+            aggregator.onBookChanged(BookChangedEvent.availabilityChanged(1L, -1));
+            action.accept(book(2L, Category.SCIENCE, 2, 2));
+            return null;
+        }).when(bookRepository).forEachBook(any());
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book(1L, Category.FICTION, 5, 2)));
+
+        // When
+        aggregator.reconcile();
+        aggregator.onBookChanged(BookChangedEvent.availabilityChanged(1L, -1));
+
+        // Then
+        CatalogStats stats = aggregator.snapshot();
+        assertEquals(stats(Category.FICTION, 1, 5, 1), stats.getCategories().get(Category.FICTION.ordinal()));
+        assertEquals(stats(Category.SCIENCE, 1, 2, 2), stats.getCategories().get(Category.SCIENCE.ordinal()));
+    }
+
+    private void scan(Book... books) {
+        doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            for (Book book : books) {
+                action.accept(book);
+            }
+            return null;
+        }).when(bookRepository).forEachBook(any());
+    }
+
+    private static CategoryStats stats(Category category, long titles, long totalCopies, long availableCopies) {
+        return new CategoryStats(category, titles, totalCopies, availableCopies);
+    }
+
+    private static Book book(Long id, Category category, int totalCopies, int availableCopies) {
+        Book book = new Book("Libro " + id, "Autor " + id, "ISBN-" + id, category, totalCopies);
+        book.setId(id);
+        book.setAvailableCopies(availableCopies);
+        return book;
+    }
+}